@@ -22,6 +22,7 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -69,8 +70,10 @@ public class SmartyDecrypter implements TelegramParser {
     private final Logger logger = LoggerFactory.getLogger(SmartyDecrypter.class);
     private final ByteBuffer iv = ByteBuffer.allocate(GCM_TAG_LENGTH);
     private final ByteBuffer cipherText = ByteBuffer.allocate(MESSAGES_BUFFER_SIZE);
+    private final byte[] plainText = new byte[MESSAGES_BUFFER_SIZE];
     private final TelegramParser parser;
     private @Nullable final SecretKeySpec secretKeySpec;
+    private @Nullable final Cipher cipher;
 
     private State state = State.WAITING_FOR_START_BYTE;
     private int currentBytePosition;
@@ -90,6 +93,16 @@ public class SmartyDecrypter implements TelegramParser {
         this.parser = parser;
         this.telegramListener = telegramListener;
         secretKeySpec = decryptionKey.isEmpty() ? null : new SecretKeySpec(HexUtils.hexToBytes(decryptionKey), "AES");
+        cipher = secretKeySpec == null ? null : createCipher();
+    }
+
+    private @Nullable Cipher createCipher() {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            logger.warn("Creating the cipher to decrypt smarty telegrams failed: ", e);
+            return null;
+        }
     }
 
     @Override
@@ -136,10 +149,15 @@ public class SmartyDecrypter implements TelegramParser {
                 break;
             case READ_PAYLOAD_LENGTH:
                 dataLength <<= 8;
-                dataLength |= rawInput;
+                dataLength |= rawInput & 0xFF;
                 if (currentBytePosition >= changeToNextStateAt) {
-                    state = State.READ_SEPARATOR_30;
-                    changeToNextStateAt++;
+                    if (dataLength - ADD_LENGTH + GCM_TAG_LENGTH > cipherText.capacity()) {
+                        logger.debug("Payload length {} too large. Dropping telegram.", dataLength);
+                        state = State.WAITING_FOR_START_BYTE;
+                    } else {
+                        state = State.READ_SEPARATOR_30;
+                        changeToNextStateAt++;
+                    }
                 }
                 break;
             case READ_SEPARATOR_30:
@@ -182,35 +200,37 @@ public class SmartyDecrypter implements TelegramParser {
     }
 
     private void processCompleted() {
-        byte[] plainText = decrypt();
+        int plainTextLength = decrypt();
 
         reset();
-        if (plainText == null) {
+        if (plainTextLength < 0) {
             telegramListener
                     .telegramReceived(new P1Telegram(Collections.emptyList(), TelegramState.INVALID_ENCRYPTION_KEY));
         } else {
-            parser.parse(plainText, plainText.length);
+            parser.parse(plainText, plainTextLength);
         }
     }
 
     /**
-     * Decrypts the collected message.
+     * Decrypts the collected message into the plain text buffer. The cipher and the buffers are reused for all
+     * messages.
      *
-     * @return the decrypted message
+     * @return the length of the decrypted message or -1 if decrypting failed
      */
-    private byte @Nullable [] decrypt() {
+    private int decrypt() {
+        final Cipher localCipher = cipher;
+
         try {
-            if (secretKeySpec != null) {
-                Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-                cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, new GCMParameterSpec(GCM_BITS, iv.array()));
-                cipher.updateAAD(ADD_DECODED);
-                return cipher.doFinal(cipherText.array(), 0, cipherText.position());
+            if (secretKeySpec != null && localCipher != null) {
+                localCipher.init(Cipher.DECRYPT_MODE, secretKeySpec, new GCMParameterSpec(GCM_BITS, iv.array()));
+                localCipher.updateAAD(ADD_DECODED);
+                return localCipher.doFinal(cipherText.array(), 0, cipherText.position(), plainText, 0);
             }
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException
-                | InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
+        } catch (InvalidKeyException | InvalidAlgorithmParameterException | IllegalBlockSizeException
+                | BadPaddingException | ShortBufferException e) {
             logger.warn("Decrypting smarty telegram failed: ", e);
         }
-        return null;
+        return -1;
     }
 
     @Override
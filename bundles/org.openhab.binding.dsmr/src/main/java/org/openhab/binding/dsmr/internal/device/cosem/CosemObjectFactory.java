@@ -14,6 +14,8 @@ package org.openhab.binding.dsmr.internal.device.cosem;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +54,30 @@ public class CosemObjectFactory {
      */
     private final List<CosemObjectType> obisWildcardCosemTypeList = new ArrayList<>();
 
+    /**
+     * Sorted keys of the OBIS Identifiers looked up by key, see {@link OBISKeyDecoder}
+     */
+    private long[] resolvedKeys = new long[0];
+
+    /**
+     * Resolved OBIS Identifiers, in the order of {@link #resolvedKeys}
+     */
+    private ResolvedOBISIdentifier[] resolvedObisIds = new ResolvedOBISIdentifier[0];
+
+    /**
+     * An OBIS Identifier and the Cosem Object types to try for it
+     */
+    private static class ResolvedOBISIdentifier {
+        private final OBISIdentifier obisId;
+        /** null if the wild card types must be searched */
+        private final @Nullable List<CosemObjectType> cosemObjectTypes;
+
+        private ResolvedOBISIdentifier(OBISIdentifier obisId, @Nullable List<CosemObjectType> cosemObjectTypes) {
+            this.obisId = obisId;
+            this.cosemObjectTypes = cosemObjectTypes;
+        }
+    }
+
     /**
      * Creates a new CosemObjectFactory
      */
@@ -93,19 +119,101 @@ public class CosemObjectFactory {
      */
     public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
         OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-        OBISIdentifier reducedObisIdGroupE;
 
         try {
             obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
         } catch (final ParseException pe) {
             logger.debug("Received invalid OBIS identifier: {}", obisIdString);
             return null;
         }
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
+        return getCosemObject(obisId, cosemStringValues);
+    }
+
+    /**
+     * Return Cosem Object for the OBIS Identifier with the given key or null if the values couldn't be parsed
+     * correctly or no corresponding Cosem Object was found.
+     *
+     * The lookup of the OBIS Identifier is done once for every key, so it doesn't need to be parsed for every
+     * telegram.
+     *
+     * @param obisKey key of the OBIS Identifier as decoded by {@link OBISKeyDecoder}
+     * @param cosemStringValues String containing Cosem values
+     * @return CosemObject or null if parsing failed
+     */
+    public @Nullable CosemObject getCosemObject(long obisKey, String cosemStringValues) {
+        int index = Arrays.binarySearch(resolvedKeys, obisKey);
+        ResolvedOBISIdentifier resolved;
+
+        if (index >= 0) {
+            resolved = resolvedObisIds[index];
+        } else {
+            resolved = resolve(OBISKeyDecoder.toOBISIdentifier(obisKey));
+            insertResolved(-index - 1, obisKey, resolved);
+        }
+        List<CosemObjectType> cosemObjectTypes = resolved.cosemObjectTypes;
+
+        if (cosemObjectTypes == null) {
+            return getCosemObject(resolved.obisId, cosemStringValues);
+        }
+        for (CosemObjectType cosemObjectType : cosemObjectTypes) {
+            CosemObject cosemObject = getCosemObjectInternal(cosemObjectType, resolved.obisId, cosemStringValues);
+            if (cosemObject != null) {
+                return cosemObject;
+            }
+        }
+        logger.debug("Received unknown Cosem Object(OBIS id: {})", resolved.obisId);
+        return null;
+    }
+
+    /**
+     * Looks up the Cosem Object types to try for the OBIS Identifier, in the same order as
+     * {@link #getCosemObject(OBISIdentifier, String)}.
+     */
+    private ResolvedOBISIdentifier resolve(OBISIdentifier obisId) {
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
+        OBISIdentifier reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
+        @Nullable
+        List<CosemObjectType> cosemObjectTypes = null;
+
+        if (obisLookupTableFixed.containsKey(reducedObisId)) {
+            cosemObjectTypes = Collections.singletonList(obisLookupTableFixed.get(reducedObisId));
+        } else if (obisLookupTableMultipleFixed.containsKey(reducedObisId)) {
+            cosemObjectTypes = obisLookupTableMultipleFixed.get(reducedObisId);
+        } else if (obisLookupTableDynamic.containsKey(reducedObisId)) {
+            cosemObjectTypes = Collections.singletonList(obisLookupTableDynamic.get(reducedObisId));
+        } else if (obisLookupTableFixed.containsKey(reducedObisIdGroupE)) {
+            cosemObjectTypes = Collections.singletonList(obisLookupTableFixed.get(reducedObisIdGroupE));
+        }
+        return new ResolvedOBISIdentifier(obisId, cosemObjectTypes);
+    }
+
+    private void insertResolved(int index, long obisKey, ResolvedOBISIdentifier resolved) {
+        long[] keys = new long[resolvedKeys.length + 1];
+        ResolvedOBISIdentifier[] obisIds = new ResolvedOBISIdentifier[keys.length];
+
+        System.arraycopy(resolvedKeys, 0, keys, 0, index);
+        System.arraycopy(resolvedObisIds, 0, obisIds, 0, index);
+        keys[index] = obisKey;
+        obisIds[index] = resolved;
+        System.arraycopy(resolvedKeys, index, keys, index + 1, resolvedKeys.length - index);
+        System.arraycopy(resolvedObisIds, index, obisIds, index + 1, resolvedObisIds.length - index);
+        resolvedKeys = keys;
+        resolvedObisIds = obisIds;
+    }
+
+    /**
+     * Return Cosem Object for the OBIS Identifier or null if the values couldn't be parsed correctly or no
+     * corresponding Cosem Object was found
+     *
+     * @param obisId the OBIS Identifier
+     * @param cosemStringValues String containing Cosem values
+     * @return CosemObject or null if parsing failed
+     */
+    private @Nullable CosemObject getCosemObject(OBISIdentifier obisId, String cosemStringValues) {
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
+        OBISIdentifier reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
 
         CosemObject cosemObject = null;
 
@@ -134,6 +242,9 @@ public class CosemObjectFactory {
                         logger.trace("Searched reducedObisId {} in the wild card type list, result: {}", reducedObisId,
                                 cosemObject);
                         obisLookupTableDynamic.put(reducedObisId, obisMsgType);
+                        // The resolved OBIS Identifiers with this reduced identifier now use the dynamic lookup table
+                        resolvedKeys = new long[0];
+                        resolvedObisIds = new ResolvedOBISIdentifier[0];
                         break;
                     }
                 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.cosem;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Decodes an OBIS identifier (A-B:C.D.E.F) character by character into a packed numeric key, without creating
+ * Strings.
+ *
+ * The key holds each group in 8 bits (F in the lowest byte, A in the sixth byte) and flags for the optional groups B,
+ * E and F. Identifiers with a group value larger than 255 have no key. Identifiers are accepted with the same rules as
+ * {@link OBISIdentifier#OBISIdentifier(String)}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class OBISKeyDecoder {
+    /**
+     * Returned by {@link #getKey()} if the characters are not an OBIS identifier with a key
+     */
+    public static final long NO_KEY = -1;
+
+    private static final int MAX_GROUP_VALUE = 0xFF;
+    private static final long GROUP_B_PRESENT = 1L << 48;
+    private static final long GROUP_E_PRESENT = 1L << 49;
+    private static final long GROUP_F_PRESENT = 1L << 50;
+
+    private final int[] groups = new int[6];
+    private final char[] separators = new char[5];
+    private int completedGroups;
+    /** value of the group being decoded, -1 if no digit was seen yet */
+    private int value = -1;
+    private boolean noKey;
+
+    /**
+     * Starts decoding a new OBIS identifier
+     */
+    public void reset() {
+        completedGroups = 0;
+        value = -1;
+        noKey = false;
+    }
+
+    /**
+     * Decodes the next character of the OBIS identifier
+     *
+     * @param c the character
+     */
+    public void append(char c) {
+        if (noKey) {
+            return;
+        }
+        if (c >= '0' && c <= '9') {
+            value = (value < 0 ? 0 : value * 10) + (c - '0');
+            noKey = value > MAX_GROUP_VALUE;
+        } else if (value < 0 || completedGroups == separators.length) {
+            noKey = true;
+        } else {
+            groups[completedGroups] = value;
+            separators[completedGroups] = c;
+            completedGroups++;
+            value = -1;
+        }
+    }
+
+    /**
+     * @return the key of the decoded OBIS identifier or {@link #NO_KEY}
+     */
+    public long getKey() {
+        if (noKey || value < 0) {
+            return NO_KEY;
+        }
+        groups[completedGroups] = value;
+        int count = completedGroups + 1;
+        int i = 0;
+        long key = 0;
+
+        // Optional group A
+        if (i < count - 1 && separators[i] == '-') {
+            key |= (long) groups[i++] << 40;
+        }
+        // Optional group B
+        if (i < count - 1 && separators[i] == ':') {
+            key |= GROUP_B_PRESENT | (long) groups[i++] << 32;
+        }
+        // Required groups C & D
+        if (i >= count - 1 || separators[i] != '.') {
+            return NO_KEY;
+        }
+        key |= (long) groups[i++] << 24;
+        key |= (long) groups[i++] << 16;
+        // Optional group E
+        if (i < count && separators[i - 1] == '.') {
+            key |= GROUP_E_PRESENT | (long) groups[i++] << 8;
+        }
+        // Optional group F, separated by any character
+        if (i < count) {
+            key |= GROUP_F_PRESENT | groups[i++];
+        }
+        return i == count ? key : NO_KEY;
+    }
+
+    /**
+     * @param key a key returned by {@link #getKey()}
+     * @return the OBIS identifier of the key
+     */
+    static OBISIdentifier toOBISIdentifier(long key) {
+        return new OBISIdentifier(group(key, 40), (key & GROUP_B_PRESENT) == 0 ? null : group(key, 32),
+                group(key, 24), group(key, 16), (key & GROUP_E_PRESENT) == 0 ? null : group(key, 8),
+                (key & GROUP_F_PRESENT) == 0 ? null : group(key, 0));
+    }
+
+    private static int group(long key, int shift) {
+        return (int) (key >> shift) & MAX_GROUP_VALUE;
+    }
+}
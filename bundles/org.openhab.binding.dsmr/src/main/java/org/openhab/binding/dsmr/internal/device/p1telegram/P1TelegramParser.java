@@ -18,11 +18,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectFactory;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISKeyDecoder;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,9 +60,9 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of characters of the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int CRC_LENGTH = 4;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -73,6 +73,11 @@ public class P1TelegramParser implements TelegramParser {
      */
     private final StringBuilder obisId = new StringBuilder();
 
+    /**
+     * Decodes the current obisId into a numeric key
+     */
+    private final OBISKeyDecoder obisKeyDecoder = new OBISKeyDecoder();
+
     /**
      * Current cosem object values buffer.
      */
@@ -86,7 +91,17 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * Current crc value read.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+
+    /**
+     * Number of characters of the current crc value read.
+     */
+    private int crcValueLength;
+
+    /**
+     * Whether the characters of the current crc value read are a valid CRC-code so far.
+     */
+    private boolean crcValueValid = true;
 
     /**
      * CRC calculation helper
@@ -242,18 +257,18 @@ public class P1TelegramParser implements TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                        logger.trace("telegramState {}, crcValue to check {} ({} characters)", telegramState, crcValue,
+                                crcValueLength);
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength > 0) {
+                            if (crcValueValid && crcValueLength == CRC_LENGTH) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("received CRC value: 0x{}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcValue), String.format("%04X", calculatedCRC));
                                 }
-                                if (crcP1Telegram != calculatedCRC) {
+                                if (crcValue != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
 
                                     telegramState = TelegramState.CRC_ERROR;
@@ -325,6 +340,7 @@ public class P1TelegramParser implements TelegramParser {
                 break;
             case DATA_OBIS_ID:
                 obisId.append(c);
+                obisKeyDecoder.append(c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE:
@@ -339,7 +355,7 @@ public class P1TelegramParser implements TelegramParser {
                 if (c == '!') {
                     crc.processByte((byte) c);
                 } else {
-                    crcValue.append(c);
+                    handleCRCCharacter(c);
                 }
                 // CRC data is not part of received data
                 break;
@@ -348,14 +364,33 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    /**
+     * Adds a character of the CRC-code, which consists of 4 hexadecimal characters in upper case.
+     *
+     * @param c the character to process
+     */
+    private void handleCRCCharacter(char c) {
+        if (c >= '0' && c <= '9') {
+            crcValue = (crcValue << 4) | (c - '0');
+        } else if (c >= 'A' && c <= 'F') {
+            crcValue = (crcValue << 4) | (c - 'A' + 10);
+        } else {
+            crcValueValid = false;
+        }
+        crcValueLength++;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
         obisId.setLength(0);
+        obisKeyDecoder.reset();
         obisValue.setLength(0);
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        crcValueValid = true;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
@@ -368,6 +403,7 @@ public class P1TelegramParser implements TelegramParser {
      */
     private void clearObisData() {
         obisId.setLength(0);
+        obisKeyDecoder.reset();
         obisValue.setLength(0);
     }
 
@@ -375,15 +411,17 @@ public class P1TelegramParser implements TelegramParser {
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
+        if (obisId.length() > 0) {
             final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+            final long obisKey = obisKeyDecoder.getKey();
+            // Identifiers without a key are rare (invalid or large group values), those are parsed from the String
+            CosemObject cosemObject = obisKey == OBISKeyDecoder.NO_KEY
+                    ? factory.getCosemObject(obisId.toString(), obisValueString)
+                    : factory.getCosemObject(obisKey, obisValueString);
 
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<String, String>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<String, String>(obisId.toString(), obisValueString));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
@@ -12,7 +12,6 @@
  */
 package org.openhab.binding.dsmr.internal.handler;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ScheduledFuture;
@@ -36,6 +35,8 @@ import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramListener;
 import org.openhab.binding.dsmr.internal.meter.DSMRMeter;
 import org.openhab.binding.dsmr.internal.meter.DSMRMeterConfiguration;
 import org.openhab.binding.dsmr.internal.meter.DSMRMeterDescriptor;
+import org.openhab.binding.dsmr.internal.meter.DSMRMeterStates;
+import org.openhab.binding.dsmr.internal.meter.DSMRMeterStates.Aggregation;
 import org.openhab.binding.dsmr.internal.meter.DSMRMeterType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,9 +58,9 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     private @NonNullByDefault({}) DSMRMeter meter;
 
     /**
-     * Last received cosem objects.
+     * Channel states received since the last update.
      */
-    private List<CosemObject> lastReceivedValues = Collections.emptyList();
+    private @NonNullByDefault({}) DSMRMeterStates meterStates;
 
     /**
      * Reference to the meter watchdog.
@@ -81,6 +82,9 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
+            if (meterStates != null) {
+                meterStates.forgetUpdatedStates();
+            }
             updateState();
         }
     }
@@ -108,11 +112,22 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
         DSMRMeterConfiguration meterConfig = getConfigAs(DSMRMeterConfiguration.class);
         DSMRMeterDescriptor meterDescriptor = new DSMRMeterDescriptor(meterType, meterConfig.channel);
         meter = new DSMRMeter(meterDescriptor);
+        meterStates = new DSMRMeterStates(meterConfig.onlyChanges, getAggregation(meterConfig));
         meterWatchdog = scheduler.scheduleWithFixedDelay(this::updateState, meterConfig.refresh, meterConfig.refresh,
                 TimeUnit.SECONDS);
         updateStatus(ThingStatus.UNKNOWN);
     }
 
+    private Aggregation getAggregation(DSMRMeterConfiguration meterConfig) {
+        try {
+            return Aggregation.valueOf(meterConfig.aggregation.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid aggregation '{}' for {}, using the last value instead", meterConfig.aggregation,
+                    getThing().getUID());
+            return Aggregation.LAST;
+        }
+    }
+
     @Override
     public void dispose() {
         if (meterWatchdog != null) {
@@ -122,30 +137,22 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     }
 
     /**
-     * Updates the state of all channels from the last received Cosem values from the meter. The lastReceivedValues are
-     * cleared after processing here so when it does contain values the next time this method is called and it contains
-     * values those are new values.
+     * Updates the state of the channels from the Cosem values received since the last update. The received values are
+     * cleared after processing here so when it does contain values the next time this method is called those are new
+     * values.
      */
     private synchronized void updateState() {
         logger.trace("Update state for device: {}", getThing().getThingTypeUID().getId());
-        if (!lastReceivedValues.isEmpty()) {
-            for (CosemObject cosemObject : lastReceivedValues) {
-                String channel = cosemObject.getType().name().toLowerCase();
-
-                for (Entry<String, ? extends State> entry : cosemObject.getCosemValues().entrySet()) {
-                    if (!entry.getKey().isEmpty()) {
-                        /* CosemObject has a specific sub channel */
-                        channel += "_" + entry.getKey();
-                    }
-                    State newState = entry.getValue();
-                    logger.debug("Updating state for channel {} to value {}", channel, newState);
-                    updateState(channel, newState);
-                }
+        final DSMRMeterStates localMeterStates = meterStates;
+
+        if (localMeterStates != null && !localMeterStates.isEmpty()) {
+            for (Entry<String, State> entry : localMeterStates.update().entrySet()) {
+                logger.debug("Updating state for channel {} to value {}", entry.getKey(), entry.getValue());
+                updateState(entry.getKey(), entry.getValue());
             }
             if (getThing().getStatus() != ThingStatus.ONLINE) {
                 updateStatus(ThingStatus.ONLINE);
             }
-            lastReceivedValues = Collections.emptyList();
         }
     }
 
@@ -157,15 +164,16 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
      */
     @Override
     public void telegramReceived(P1Telegram telegram) {
-        lastReceivedValues = Collections.emptyList();
         final DSMRMeter localMeter = meter;
+        final DSMRMeterStates localMeterStates = meterStates;
 
-        if (localMeter == null) {
+        if (localMeter == null || localMeterStates == null) {
             return;
         }
         List<CosemObject> filteredValues = localMeter.filterMeterValues(telegram.getCosemObjects());
 
         if (filteredValues.isEmpty()) {
+            localMeterStates.clear();
             if (getThing().getStatus() == ThingStatus.ONLINE) {
                 setDeviceOffline(ThingStatusDetail.COMMUNICATION_ERROR, "@text/error.thing.nodata");
             }
@@ -173,7 +181,7 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
             if (logger.isTraceEnabled()) {
                 logger.trace("Received {} objects for {}", filteredValues.size(), getThing().getThingTypeUID().getId());
             }
-            lastReceivedValues = filteredValues;
+            localMeterStates.add(filteredValues);
             if (getThing().getStatus() != ThingStatus.ONLINE) {
                 updateState();
             }
@@ -207,5 +215,9 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     private void setDeviceOffline(ThingStatusDetail status, @Nullable String details) {
         updateStatus(ThingStatus.OFFLINE, status, details);
         getThing().getChannels().forEach(c -> updateState(c.getUID(), UnDefType.NULL));
+        if (meterStates != null) {
+            // all channels must be updated again when the meter is back
+            meterStates.forgetUpdatedStates();
+        }
     }
 }
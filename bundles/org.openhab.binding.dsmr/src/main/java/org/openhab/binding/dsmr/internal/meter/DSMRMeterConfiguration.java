@@ -32,8 +32,19 @@ public class DSMRMeterConfiguration {
      */
     public int refresh;
 
+    /**
+     * Only update channels of which the state changed.
+     */
+    public boolean onlyChanges = true;
+
+    /**
+     * How power values received within the refresh period are combined, see {@link DSMRMeterStates.Aggregation}.
+     */
+    public String aggregation = "last";
+
     @Override
     public String toString() {
-        return "DSMRMeterConfiguration(channel:" + channel + ",refresh=" + refresh + ")";
+        return "DSMRMeterConfiguration(channel:" + channel + ",refresh=" + refresh + ",onlyChanges=" + onlyChanges
+                + ",aggregation=" + aggregation + ")";
     }
 }
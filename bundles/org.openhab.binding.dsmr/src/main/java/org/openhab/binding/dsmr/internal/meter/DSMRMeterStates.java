@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.meter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.unit.SmartHomeUnits;
+import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+
+/**
+ * Collects the channel states of the telegrams a meter receives within one refresh period and returns the states to
+ * update at the end of the period.
+ *
+ * Channels with a power value can be aggregated over the period (minimum, maximum or average), all other channels get
+ * the last value received. Optionally only the channels of which the state changed since the last update are
+ * returned.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class DSMRMeterStates {
+
+    /**
+     * How the power values received within one refresh period are combined
+     */
+    public enum Aggregation {
+        /** The last value received */
+        LAST,
+        /** The average of the values received */
+        AVERAGE,
+        /** The lowest value received */
+        MINIMUM,
+        /** The highest value received */
+        MAXIMUM
+    }
+
+    /**
+     * The power values of one channel received within the current refresh period
+     */
+    private static class PowerValues {
+        private final Unit<?> unit;
+        private BigDecimal minimum;
+        private BigDecimal maximum;
+        private BigDecimal sum;
+        private int count = 1;
+
+        private PowerValues(QuantityType<?> quantity) {
+            unit = quantity.getUnit();
+            minimum = maximum = sum = quantity.toBigDecimal();
+        }
+
+        private void add(BigDecimal value) {
+            minimum = minimum.min(value);
+            maximum = maximum.max(value);
+            sum = sum.add(value);
+            count++;
+        }
+
+        private State get(Aggregation aggregation) {
+            switch (aggregation) {
+                case MINIMUM:
+                    return new QuantityType<>(minimum, unit);
+                case MAXIMUM:
+                    return new QuantityType<>(maximum, unit);
+                default:
+                    return new QuantityType<>(sum.divide(BigDecimal.valueOf(count), sum.scale(), RoundingMode.HALF_UP),
+                            unit);
+            }
+        }
+    }
+
+    private final boolean onlyChanges;
+    private final Aggregation aggregation;
+
+    /** Last state of each channel received within the current refresh period, in the order received */
+    private final Map<String, State> receivedStates = new LinkedHashMap<>();
+
+    /** Power values of each channel received within the current refresh period, if they are aggregated */
+    private final Map<String, PowerValues> receivedPowerValues = new HashMap<>();
+
+    /** States of the channels returned by the last updates */
+    private final Map<String, State> updatedStates = new HashMap<>();
+
+    /**
+     * Creates a new {@link DSMRMeterStates}
+     *
+     * @param onlyChanges if true only the states that changed since the last update are returned
+     * @param aggregation how power values are combined
+     */
+    public DSMRMeterStates(boolean onlyChanges, Aggregation aggregation) {
+        this.onlyChanges = onlyChanges;
+        this.aggregation = aggregation;
+    }
+
+    /**
+     * Adds the values of a received telegram
+     *
+     * @param cosemObjects the Cosem Objects of the meter in the telegram
+     */
+    public synchronized void add(List<CosemObject> cosemObjects) {
+        for (CosemObject cosemObject : cosemObjects) {
+            String channelPrefix = cosemObject.getType().name().toLowerCase();
+
+            for (Entry<String, ? extends State> entry : cosemObject.getCosemValues().entrySet()) {
+                /* CosemObject can have a specific sub channel */
+                String channel = entry.getKey().isEmpty() ? channelPrefix : channelPrefix + "_" + entry.getKey();
+                State state = entry.getValue();
+
+                receivedStates.put(channel, state);
+                if (aggregation != Aggregation.LAST) {
+                    addPowerValue(channel, state);
+                }
+            }
+        }
+    }
+
+    private void addPowerValue(String channel, State state) {
+        QuantityType<?> quantity = state instanceof QuantityType ? (QuantityType<?>) state : null;
+
+        if (quantity == null || !quantity.getUnit().isCompatible(SmartHomeUnits.WATT)) {
+            return;
+        }
+        PowerValues powerValues = receivedPowerValues.get(channel);
+
+        if (powerValues == null) {
+            receivedPowerValues.put(channel, new PowerValues(quantity));
+        } else {
+            @Nullable
+            QuantityType<?> converted = quantity.toUnit(powerValues.unit);
+
+            if (converted != null) {
+                powerValues.add(converted.toBigDecimal());
+            }
+        }
+    }
+
+    /**
+     * @return true if no values were received since the last update
+     */
+    public synchronized boolean isEmpty() {
+        return receivedStates.isEmpty();
+    }
+
+    /**
+     * Returns the states to update for the values received since the last update and starts a new refresh period.
+     *
+     * @return the states to update by channel id
+     */
+    public synchronized Map<String, State> update() {
+        Map<String, State> states = new LinkedHashMap<>();
+
+        for (Entry<String, State> entry : receivedStates.entrySet()) {
+            String channel = entry.getKey();
+            PowerValues powerValues = receivedPowerValues.get(channel);
+            State state = powerValues == null ? entry.getValue() : powerValues.get(aggregation);
+
+            if (!onlyChanges || !state.equals(updatedStates.get(channel))) {
+                states.put(channel, state);
+            }
+            updatedStates.put(channel, state);
+        }
+        clear();
+        return states;
+    }
+
+    /**
+     * Discards the values received since the last update
+     */
+    public synchronized void clear() {
+        receivedStates.clear();
+        receivedPowerValues.clear();
+    }
+
+    /**
+     * Forgets the states of the last updates, so the next update returns all states, also if not changed
+     */
+    public synchronized void forgetUpdatedStates() {
+        updatedStates.clear();
+    }
+}
@@ -16,6 +16,8 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -92,4 +94,30 @@ public class SmartyDecrypterTest {
 
         assertThat("Should have correctly decrypted the telegram", telegramResult.get(), is(equalTo(expected)));
     }
+
+    /**
+     * Tests decrypting of several Smarty telegrams with the same decrypter.
+     */
+    @Test
+    public void testSmartyDecrypterRepeatedTelegrams() {
+        List<String> telegramResults = new ArrayList<>();
+        P1TelegramListener telegramListener = telegram -> telegramResults.add(telegram.getRawTelegram());
+        SmartyDecrypter decoder = new SmartyDecrypter(new P1TelegramParser(telegramListener),
+                new DSMRTelegramListener(KEY), KEY);
+        decoder.setLenientMode(true);
+        int repeat = 3;
+        byte[] data = new byte[TELEGRAM.length * repeat];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) TELEGRAM[i % TELEGRAM.length];
+        }
+
+        decoder.parse(data, data.length);
+        String expected = new String(TelegramReaderUtil.readRawTelegram("smarty"), StandardCharsets.UTF_8);
+
+        assertThat("Should have decrypted all telegrams", telegramResults.size(), is(repeat));
+        for (String telegramResult : telegramResults) {
+            assertThat("Should have correctly decrypted the telegram", telegramResult, is(equalTo(expected)));
+        }
+    }
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.cosem;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link OBISKeyDecoder}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class OBISKeyDecoderTest {
+
+    private static final String[] VALID_IDS = { "1-0:1.8.1", "0-1:24.2.1", "1-0:99.97.0", "0-0:96.1.1", "1.8.1",
+            "1.8", "1-3:0.2.8", "0-1:24.2.1*255", "1.8*2", "1.8-2", "1.8.1.2", "1-1.8.0", "0:96.1", "01-00:001.8.1" };
+
+    private static final String[] INVALID_IDS = { "1-0:1", "1-0:1.", "1..8", "1.8.1.2.3", "1-2-3.4", "1.8.1*",
+            "1.8.1 ", "1-0:1.8.1*255*2" };
+
+    private static long decode(String obisIdString) {
+        OBISKeyDecoder decoder = new OBISKeyDecoder();
+        // the decoder is reused by the parser, so decode something else first
+        for (char c : "9-9:9.9.9*9".toCharArray()) {
+            decoder.append(c);
+        }
+        decoder.reset();
+        for (char c : obisIdString.toCharArray()) {
+            decoder.append(c);
+        }
+        return decoder.getKey();
+    }
+
+    @Test
+    public void testValidIdentifiers() throws ParseException {
+        for (String obisIdString : VALID_IDS) {
+            long key = decode(obisIdString);
+
+            assertNotEquals(obisIdString, OBISKeyDecoder.NO_KEY, key);
+            assertEquals(obisIdString, new OBISIdentifier(obisIdString), OBISKeyDecoder.toOBISIdentifier(key));
+        }
+    }
+
+    @Test
+    public void testInvalidIdentifiers() {
+        for (String obisIdString : INVALID_IDS) {
+            assertEquals(obisIdString, OBISKeyDecoder.NO_KEY, decode(obisIdString));
+            try {
+                new OBISIdentifier(obisIdString);
+                fail("Expected invalid OBIS identifier: " + obisIdString);
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testLargeGroupValueHasNoKey() {
+        assertEquals(OBISKeyDecoder.NO_KEY, decode("1-0:1.8.1*256"));
+    }
+
+    @Test
+    public void testDifferentIdentifiersHaveDifferentKeys() {
+        assertNotEquals(decode("1.8.1"), decode("1.8*1"));
+        assertNotEquals(decode("0-0:1.8"), decode("1.8"));
+        assertNotEquals(decode("1-0:1.8.1"), decode("1-0:1.8.2"));
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -64,4 +65,21 @@ public class P1TelegramParserTest {
         assertEquals("Expected number of objects", numberOfCosemObjects,
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum());
     }
+
+    @Test
+    public void testParsingRepeatedTelegrams() {
+        List<P1Telegram> telegrams = new ArrayList<>();
+        byte[] data = TelegramReaderUtil.readRawTelegram(telegramName);
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+
+        for (int i = 0; i < 3; i++) {
+            parser.parse(data, data.length);
+        }
+        assertEquals("Expected number of telegrams", 3, telegrams.size());
+        for (P1Telegram telegram : telegrams) {
+            assertEquals("Expected telegram state", TelegramState.OK, telegram.getTelegramState());
+            assertEquals("Expected number of objects", numberOfCosemObjects,
+                    telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum());
+        }
+    }
 }
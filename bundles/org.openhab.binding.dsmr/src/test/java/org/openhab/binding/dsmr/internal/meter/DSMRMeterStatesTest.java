@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.meter;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectType;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
+import org.openhab.binding.dsmr.internal.meter.DSMRMeterStates.Aggregation;
+
+/**
+ * Test class for {@link DSMRMeterStates}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class DSMRMeterStatesTest {
+
+    private static final String ACTUAL_DELIVERY = "emeter_actual_delivery";
+
+    private static List<CosemObject> readMeterValues() {
+        DSMRMeter meter = new DSMRMeter(new DSMRMeterDescriptor(DSMRMeterType.ELECTRICITY_V5_0, 0));
+
+        return meter.filterMeterValues(TelegramReaderUtil.readTelegram("dsmr_50", TelegramState.OK).getCosemObjects());
+    }
+
+    private static List<CosemObject> actualDelivery(String value) throws ParseException {
+        CosemObject cosemObject = new CosemObject(CosemObjectType.EMETER_ACTUAL_DELIVERY,
+                CosemObjectType.EMETER_ACTUAL_DELIVERY.obisId);
+
+        cosemObject.parseCosemValues("(" + value + "*kW)");
+        return Arrays.asList(cosemObject);
+    }
+
+    @Test
+    public void testOnlyChangesAreUpdated() throws ParseException {
+        DSMRMeterStates meterStates = new DSMRMeterStates(true, Aggregation.LAST);
+
+        meterStates.add(readMeterValues());
+        Map<String, State> states = meterStates.update();
+        assertEquals(new QuantityType<>("1.193 kW"), states.get(ACTUAL_DELIVERY));
+        assertTrue("Expected meter identifier", states.containsKey("emeter_equipment_identifier"));
+        assertTrue("Expected no values after update", meterStates.isEmpty());
+
+        meterStates.add(readMeterValues());
+        assertTrue("Expected no changes", meterStates.update().isEmpty());
+
+        meterStates.add(readMeterValues());
+        meterStates.add(actualDelivery("01.200"));
+        assertEquals(1, meterStates.update().size());
+
+        meterStates.forgetUpdatedStates();
+        meterStates.add(readMeterValues());
+        assertEquals(states.keySet(), meterStates.update().keySet());
+    }
+
+    @Test
+    public void testAllValuesAreUpdated() {
+        DSMRMeterStates meterStates = new DSMRMeterStates(false, Aggregation.LAST);
+
+        meterStates.add(readMeterValues());
+        Map<String, State> states = meterStates.update();
+        meterStates.add(readMeterValues());
+        assertEquals(states, meterStates.update());
+    }
+
+    @Test
+    public void testAggregation() throws ParseException {
+        assertEquals(new QuantityType<>("1.000 kW"), aggregate(Aggregation.MINIMUM));
+        assertEquals(new QuantityType<>("3.500 kW"), aggregate(Aggregation.MAXIMUM));
+        assertEquals(new QuantityType<>("2.500 kW"), aggregate(Aggregation.AVERAGE));
+        assertEquals(new QuantityType<>("2.500 kW"), aggregate(Aggregation.LAST));
+    }
+
+    private static State aggregate(Aggregation aggregation) throws ParseException {
+        DSMRMeterStates meterStates = new DSMRMeterStates(true, aggregation);
+
+        meterStates.add(actualDelivery("01.000"));
+        meterStates.add(actualDelivery("03.000"));
+        meterStates.add(actualDelivery("03.500"));
+        meterStates.add(actualDelivery("03.000"));
+        meterStates.add(actualDelivery("02.000"));
+        meterStates.add(actualDelivery("02.500"));
+        return meterStates.update().get(ACTUAL_DELIVERY);
+    }
+}
@@ -12,7 +12,9 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -86,6 +88,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> connectJob;
 
     private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
+    /**
+     * The listeners of each group address that received a telegram, built on demand from
+     * {@link GroupAddressListener#listensTo(GroupAddress)} and discarded whenever a listener is (un)registered.
+     */
+    private final Map<GroupAddress, GroupAddressListener[]> listenersByGroupAddress = new ConcurrentHashMap<>();
     private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
 
     @FunctionalInterface
@@ -251,11 +258,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        GroupAddressListener[] listeners = listenersByGroupAddress.computeIfAbsent(destination,
+                this::findGroupAddressListeners);
+        if (listeners.length == 0) {
+            return;
         }
+        knxScheduler.schedule(() -> {
+            for (GroupAddressListener listener : listeners) {
+                try {
+                    action.apply(listener, source, destination, asdu);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to process a {} telegram to '{}'", task, destination, e);
+                }
+            }
+        }, 0, TimeUnit.SECONDS);
+    }
+
+    private GroupAddressListener[] findGroupAddressListeners(GroupAddress destination) {
+        return groupAddressListeners.stream().filter(listener -> listener.listensTo(destination))
+                .toArray(GroupAddressListener[]::new);
     }
 
     /**
@@ -377,12 +398,16 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        boolean added = groupAddressListeners.add(listener);
+        listenersByGroupAddress.clear();
+        return added;
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        boolean removed = groupAddressListeners.remove(listener);
+        listenersByGroupAddress.clear();
+        return removed;
     }
 
     @Override
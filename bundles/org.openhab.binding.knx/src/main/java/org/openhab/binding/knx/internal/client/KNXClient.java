@@ -63,6 +63,9 @@ public interface KNXClient {
     /**
      * Register the given listener to be informed on KNX bus traffic.
      *
+     * The group addresses the listener {@link GroupAddressListener#listensTo listens to} must not change while it is
+     * registered, as the listeners of each group address are looked up only once.
+     *
      * @param listener the listener
      * @return {@code true} if it wasn't registered before
      */
@@ -15,8 +15,18 @@ package org.openhab.binding.knx.internal.dpt;
 import static org.junit.Assert.assertEquals;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+import tuwien.auto.calimero.dptxlator.DPTXlator2ByteFloat;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -30,4 +40,35 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    private static Datapoint datapoint(String dptID) {
+        return new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dptID);
+    }
+
+    @Test
+    public void testToType_booleans() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, mapper.toType(datapoint("1.001"), new byte[] { 1 }));
+        assertEquals(OnOffType.OFF, mapper.toType(datapoint("1.001"), new byte[] { 0 }));
+        assertEquals(UpDownType.DOWN, mapper.toType(datapoint("1.008"), new byte[] { 1 }));
+        assertEquals(OpenClosedType.CLOSED, mapper.toType(datapoint("1.009"), new byte[] { 0 }));
+        assertEquals(new DecimalType(1), mapper.toType(datapoint("1.022"), new byte[] { 1 }));
+        assertEquals(null, mapper.toType(datapoint("1.001"), new byte[0]));
+    }
+
+    @Test
+    public void testToType_replayedTelegramsReuseTranslators() throws KNXException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        DPTXlator2ByteFloat temperature = new DPTXlator2ByteFloat(DPTXlator2ByteFloat.DPT_TEMPERATURE);
+        for (int i = 0; i < 3; i++) {
+            for (int raw = 0; raw < 256; raw += 15) {
+                byte[] data = new byte[] { (byte) (raw >> 1), (byte) raw };
+                temperature.setData(data);
+                assertEquals(new DecimalType(temperature.getNumericValue()), mapper.toType(datapoint("9.001"), data));
+                assertEquals(OnOffType.ON, mapper.toType(datapoint("1.001"), new byte[] { 1 }));
+            }
+            assertEquals(PercentType.HUNDRED, mapper.toType(datapoint("5.001"), new byte[] { (byte) 0xFF }));
+            assertEquals(PercentType.ZERO, mapper.toType(datapoint("5.001"), new byte[] { 0 }));
+        }
+    }
+
 }
@@ -13,12 +13,16 @@
 package org.openhab.binding.logreader.internal.filereader;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
-import org.apache.commons.io.input.Tailer;
-import org.apache.commons.io.input.TailerListener;
-import org.apache.commons.io.input.TailerListenerAdapter;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
@@ -26,7 +30,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Apache Tailer based log file reader implementation.
+ * {@link FileChannel} based log file reader implementation, which follows the end of the file like "tail -f".
+ *
+ * The file is polled for new content with the refresh rate. A file which got shorter is regarded as rotated: The rest
+ * of the old file is read and the new file is read from the beginning.
  *
  * @author Pauli Anttila - Initial contribution
  */
@@ -34,36 +41,169 @@ public class FileTailer extends AbstractLogFileReader implements LogFileReader {
 
     private final Logger logger = LoggerFactory.getLogger(FileTailer.class);
 
-    private Tailer tailer;
-    private ExecutorService executor;
+    private static final int BUFFER_SIZE = 4096;
 
-    TailerListener logListener = new TailerListenerAdapter() {
+    private @Nullable Tailer tailer;
+    private @Nullable ExecutorService executor;
 
-        @Override
-        public void handle(@Nullable String line) {
-            sendLineToListeners(line);
+    /**
+     * Reads the lines added to a file. The buffers are reused for all reads.
+     */
+    private class Tailer implements Runnable {
+        private final File file;
+        private final long delayMillis;
+        private final Charset charset = Charset.defaultCharset();
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private byte[] line = new byte[256];
+        private int lineLength;
+        private volatile boolean run = true;
+
+        private Tailer(File file, long delayMillis) {
+            this.file = file;
+            this.delayMillis = delayMillis;
         }
 
-        @Override
-        public void fileNotFound() {
-            sendFileNotFoundToListeners();
+        private void stop() {
+            run = false;
         }
 
         @Override
-        public void handle(@Nullable Exception e) {
-            sendExceptionToListeners(e);
+        public void run() {
+            FileChannel channel = null;
+            try {
+                long last = 0; // The last time the file was checked for changes
+                long position = 0; // position within the file
+                while (run && channel == null) {
+                    channel = open();
+                    if (channel == null) {
+                        Thread.sleep(delayMillis);
+                    } else {
+                        // Start at the end of the file
+                        position = file.length();
+                        last = file.lastModified();
+                        channel.position(position);
+                    }
+                }
+                while (run && channel != null) {
+                    // The modification time must be read first, otherwise content added in between is missed
+                    final boolean newer = file.lastModified() > last;
+                    final long length = file.length();
+                    if (length < position) {
+                        sendFileRotationToListeners();
+                        // Finish reading the old file, if the new file can be opened
+                        FileChannel newChannel = open();
+                        if (newChannel == null) {
+                            Thread.sleep(delayMillis);
+                        } else {
+                            try (FileChannel oldChannel = channel) {
+                                channel = newChannel;
+                                readLines(oldChannel);
+                            } catch (IOException e) {
+                                sendExceptionToListeners(e);
+                            }
+                            position = 0;
+                        }
+                        continue;
+                    } else if (length > position) {
+                        position = readLines(channel);
+                        last = file.lastModified();
+                    } else if (newer) {
+                        // The file was touched without adding content, the lines before the position have already
+                        // been read and are not read again
+                        last = file.lastModified();
+                    }
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sendExceptionToListeners(e);
+            } catch (IOException | RuntimeException e) {
+                sendExceptionToListeners(e);
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        sendExceptionToListeners(e);
+                    }
+                }
+            }
         }
 
-        @Override
-        public void fileRotated() {
-            sendFileRotationToListeners();
+        private @Nullable FileChannel open() throws IOException {
+            try {
+                return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                sendFileNotFoundToListeners();
+                return null;
+            }
+        }
+
+        /**
+         * Reads the complete lines from the current position of the channel to the end of the file. The channel is
+         * left at the start of an incomplete last line, so it is read again with the next call.
+         *
+         * @return the position after the last complete line
+         */
+        private long readLines(FileChannel channel) throws IOException {
+            long position = channel.position();
+            long lineStart = position;
+            boolean seenCR = false;
+
+            lineLength = 0;
+            buffer.clear();
+            while (run && channel.read(buffer) > 0) {
+                final byte[] bytes = buffer.array();
+                final int length = buffer.position();
+
+                for (int i = 0; i < length; i++, position++) {
+                    final byte ch = bytes[i];
+                    switch (ch) {
+                        case '\n':
+                            seenCR = false; // swallow CR before LF
+                            sendLine();
+                            lineStart = position + 1;
+                            break;
+                        case '\r':
+                            if (seenCR) {
+                                appendToLine((byte) '\r');
+                            }
+                            seenCR = true;
+                            break;
+                        default:
+                            if (seenCR) {
+                                seenCR = false; // a CR without LF ends the line as well
+                                sendLine();
+                                lineStart = position;
+                            }
+                            appendToLine(ch);
+                    }
+                }
+                buffer.clear();
+            }
+            channel.position(lineStart);
+            return lineStart;
+        }
+
+        private void appendToLine(byte ch) {
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = ch;
         }
-    };
+
+        private void sendLine() {
+            sendLineToListeners(new String(line, 0, lineLength, charset));
+            lineLength = 0;
+        }
+    }
 
     @Override
     public void start(String filePath, long refreshRate) throws FileReaderException {
-        tailer = new Tailer(new File(filePath), logListener, refreshRate, true, false, true);
-        executor = Executors.newSingleThreadExecutor();
+        Tailer tailer = new Tailer(new File(filePath), refreshRate);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        this.tailer = tailer;
+        this.executor = executor;
         try {
             logger.debug("Start executor");
             executor.execute(tailer);
@@ -76,9 +216,11 @@ public class FileTailer extends AbstractLogFileReader implements LogFileReader {
     @Override
     public void stop() {
         logger.debug("Shutdown");
+        Tailer tailer = this.tailer;
         if (tailer != null) {
             tailer.stop();
         }
+        ExecutorService executor = this.executor;
         if (executor != null) {
             executor.shutdown();
         }
@@ -14,21 +14,24 @@ package org.openhab.binding.logreader.internal.searchengine;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * This class implements logic for regular expression based searching.
  *
+ * The search patterns are combined, so that a line is searched only once for all of them: Patterns without regular
+ * expression meta characters are searched as plain text, all other patterns are combined into one alternation.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 public class SearchEngine {
 
-    private List<Pattern> matchers;
-    private List<Pattern> blacklistingMatchers;
+    private PatternSet matchers;
+    private PatternSet blacklistingMatchers;
 
     private long matchCount;
 
@@ -40,8 +43,8 @@ public class SearchEngine {
      *
      */
     public SearchEngine(String patterns, String blacklistingPatterns) throws PatternSyntaxException {
-        matchers = compilePatterns(patterns);
-        blacklistingMatchers = compilePatterns(blacklistingPatterns);
+        matchers = new PatternSet(patterns);
+        blacklistingMatchers = new PatternSet(blacklistingPatterns);
     }
 
     /**
@@ -51,7 +54,7 @@ public class SearchEngine {
      * @return true if one of the search patterns found.
      */
     public boolean isMatching(String data) {
-        if (isMatching(matchers, data)) {
+        if (matchers.isMatching(data)) {
             if (notBlacklisted(data)) {
                 matchCount++;
                 return true;
@@ -72,40 +75,91 @@ public class SearchEngine {
         setMatchCount(0);
     }
 
+    private boolean notBlacklisted(String data) {
+        return !blacklistingMatchers.isMatching(data);
+    }
+
     /**
-     * Split pattern string and precompile search patterns.
-     *
-     * @param patterns patterns which will handled.
-     * @return list of precompiled patterns. If pattern parameter is null, empty list is returned.
+     * Precompiled search patterns which are searched together.
      */
-    private List<Pattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
-        List<Pattern> patternsList = new ArrayList<Pattern>();
+    private static class PatternSet {
+        private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+        private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9k]");
+
+        /** patterns without meta characters */
+        private final String[] literals;
+        /** alternation of all patterns which can be combined, null if there are none */
+        private final @Nullable Pattern combined;
+        /** patterns with back references, which can't be combined */
+        private final List<Pattern> separate = new ArrayList<>();
 
-        if (patterns != null && !patterns.isEmpty()) {
-            String list[] = patterns.split("\\|");
-            if (list.length > 0) {
+        /**
+         * Split pattern string and precompile search patterns.
+         *
+         * @param patterns patterns which will handled. If null, nothing is matching.
+         */
+        private PatternSet(@Nullable String patterns) throws PatternSyntaxException {
+            List<String> literalList = new ArrayList<>();
+            List<Pattern> combinable = new ArrayList<>();
 
-                for (String patternStr : list) {
-                    patternsList.add(Pattern.compile(patternStr));
+            if (patterns != null && !patterns.isEmpty()) {
+                for (String patternStr : patterns.split("\\|")) {
+                    // compile every pattern, so syntax errors are reported for the pattern itself
+                    Pattern pattern = Pattern.compile(patternStr);
+
+                    if (isLiteral(patternStr)) {
+                        literalList.add(patternStr);
+                    } else if (BACK_REFERENCE.matcher(patternStr).find()) {
+                        separate.add(pattern);
+                    } else {
+                        combinable.add(pattern);
+                    }
                 }
             }
+            literals = literalList.toArray(new String[literalList.size()]);
+            combined = combine(combinable);
         }
-        return patternsList;
-    }
 
-    private boolean notBlacklisted(String data) {
-        return !isMatching(blacklistingMatchers, data);
-    }
+        private @Nullable Pattern combine(List<Pattern> patterns) {
+            if (patterns.size() <= 1) {
+                return patterns.isEmpty() ? null : patterns.get(0);
+            }
+            try {
+                // non capturing groups also limit the scope of inline flags to the pattern
+                return Pattern.compile(patterns.stream().map(pattern -> "(?:" + pattern.pattern() + ")")
+                        .collect(Collectors.joining("|")));
+            } catch (PatternSyntaxException e) {
+                // e.g. a quote or comment reaching to the end of a pattern
+                separate.addAll(patterns);
+                return null;
+            }
+        }
+
+        private static boolean isLiteral(String pattern) {
+            for (int i = 0; i < pattern.length(); i++) {
+                if (META_CHARACTERS.indexOf(pattern.charAt(i)) >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-    private boolean isMatching(@Nullable List<Pattern> patterns, String data) {
-        if (patterns != null) {
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(data);
-                if (matcher.find()) {
+        private boolean isMatching(String data) {
+            for (String literal : literals) {
+                if (data.contains(literal)) {
                     return true;
                 }
             }
+            Pattern localCombined = combined;
+            if (localCombined != null && localCombined.matcher(data).find()) {
+                return true;
+            }
+            for (Pattern pattern : separate) {
+                if (pattern.matcher(data).find()) {
+                    return true;
+                }
+            }
+            return false;
         }
-        return false;
     }
 }
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests cases for {@link FileTailer}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class FileTailerTest {
+
+    private static final long REFRESH_RATE = 20;
+    private static final String ROTATED = "<rotated>";
+
+    private final FileTailer tailer = new FileTailer();
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("logreader", ".log");
+        append("existing line\n");
+        tailer.registerListener(new FileReaderListener() {
+            @Override
+            public void fileNotFound() {
+            }
+
+            @Override
+            public void fileRotated() {
+                events.add(ROTATED);
+            }
+
+            @Override
+            public void handle(String line) {
+                events.add(line);
+            }
+
+            @Override
+            public void handle(Exception ex) {
+                events.add("<exception " + ex + ">");
+            }
+        });
+        tailer.start(file.getAbsolutePath(), REFRESH_RATE);
+        // let the tailer open the file and skip the existing content
+        Thread.sleep(10 * REFRESH_RATE);
+    }
+
+    @After
+    public void tearDown() {
+        tailer.stop();
+        file.delete();
+    }
+
+    private void append(String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(Charset.defaultCharset()), StandardOpenOption.APPEND);
+    }
+
+    private String nextEvent() throws InterruptedException {
+        String event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull("Expected an event", event);
+        return event;
+    }
+
+    private void assertNoEvent() throws InterruptedException {
+        assertThat(events.poll(10 * REFRESH_RATE, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    public void appendedLinesAreRead() throws Exception {
+        append("first\nsecond\r\nthird\n");
+
+        assertThat(nextEvent(), is("first"));
+        assertThat(nextEvent(), is("second"));
+        assertThat(nextEvent(), is("third"));
+        assertNoEvent();
+    }
+
+    @Test
+    public void partialLineIsReadWhenComplete() throws Exception {
+        append("incompl");
+        assertNoEvent();
+
+        append("ete\n");
+        assertThat(nextEvent(), is("incomplete"));
+    }
+
+    @Test
+    public void touchedFileIsNotReadAgain() throws Exception {
+        append("line\n");
+        assertThat(nextEvent(), is("line"));
+
+        assertTrue(file.setLastModified(file.lastModified() + 10000));
+        assertNoEvent();
+    }
+
+    @Test
+    public void rotatedFileIsReadFromTheBeginning() throws Exception {
+        append("before rotation\n");
+        assertThat(nextEvent(), is("before rotation"));
+
+        Files.write(file.toPath(), "new\n".getBytes(Charset.defaultCharset()));
+
+        assertThat(nextEvent(), is(ROTATED));
+        assertThat(nextEvent(), is("new"));
+        assertNoEvent();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.Assert.*;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link SearchEngine}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class SearchEngineTest {
+
+    @Test
+    public void literalPatternsMatchAnywhereInTheLine() {
+        SearchEngine engine = new SearchEngine("ERROR|WARN", null);
+
+        assertTrue(engine.isMatching("2020-01-01 [ERROR] failure"));
+        assertTrue(engine.isMatching("2020-01-01 [WARN ] warning"));
+        assertFalse(engine.isMatching("2020-01-01 [INFO ] error in lower case"));
+        assertEquals(2, engine.getMatchCount());
+    }
+
+    @Test
+    public void regularExpressionsAreCombined() {
+        SearchEngine engine = new SearchEngine("ERROR|code [0-9]+|^Exception", null);
+
+        assertTrue(engine.isMatching("an ERROR"));
+        assertTrue(engine.isMatching("failed with code 42"));
+        assertTrue(engine.isMatching("Exception in thread main"));
+        assertFalse(engine.isMatching("failed with code x"));
+        assertFalse(engine.isMatching("caused by Exception"));
+    }
+
+    @Test
+    public void anchorsAndGroupsStayWithinTheirPattern() {
+        SearchEngine engine = new SearchEngine("^a$|(b)c", null);
+
+        assertTrue(engine.isMatching("a"));
+        assertTrue(engine.isMatching("xbcx"));
+        assertFalse(engine.isMatching("ab"));
+    }
+
+    @Test
+    public void backReferencesReferToTheirOwnPattern() {
+        SearchEngine engine = new SearchEngine("(x)y|(a)b\\1", null);
+
+        assertTrue(engine.isMatching("aba"));
+        assertTrue(engine.isMatching("xy"));
+        assertFalse(engine.isMatching("abx"));
+    }
+
+    @Test
+    public void inlineFlagsApplyOnlyToTheirPattern() {
+        SearchEngine engine = new SearchEngine("(?i)error|Warn.ng", null);
+
+        assertTrue(engine.isMatching("an Error"));
+        assertTrue(engine.isMatching("a Warning"));
+        assertFalse(engine.isMatching("a WARNING"));
+    }
+
+    @Test
+    public void blacklistedLinesDoNotMatch() {
+        SearchEngine engine = new SearchEngine("ERROR|WARN", "ignored|(?i)known issue");
+
+        assertTrue(engine.isMatching("ERROR: failure"));
+        assertFalse(engine.isMatching("ERROR: ignored failure"));
+        assertFalse(engine.isMatching("WARN: Known Issue"));
+        assertEquals(1, engine.getMatchCount());
+    }
+
+    @Test
+    public void noPatternsMatchNothing() {
+        SearchEngine engine = new SearchEngine("", null);
+
+        assertFalse(engine.isMatching("ERROR"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void invalidPatternIsReported() {
+        new SearchEngine("ERROR|code [0-9", null);
+    }
+}
@@ -150,6 +150,11 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    /**
+     * Raw bits of the last processed register value, see {@link ModbusBitUtilities#extractRawValueFromRegisters}
+     */
+    private volatile @Nullable Long lastRawValue;
+    private volatile long lastRawValueProcessedMillis;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -419,6 +424,21 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        lastRawValue = null;
+        lastRawValueProcessedMillis = 0L;
+    }
+
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        // newly linked channel has no last state, process the next value fully
+        lastRawValue = null;
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public synchronized void channelUnlinked(ChannelUID channelUID) {
+        lastRawValue = null;
+        super.channelUnlinked(channelUID);
     }
 
     @Override
@@ -683,6 +703,26 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(registers, extractIndex, readValueType);
+        long now = System.currentTimeMillis();
+        Long lastRawValue = this.lastRawValue;
+        if (lastRawValue != null && lastRawValue.longValue() == rawValue && updateUnchangedValuesEveryMillis > 0L
+                && now - lastRawValueProcessedMillis <= updateUnchangedValuesEveryMillis) {
+            // Registers have not changed, so neither have the channel states. Skip decoding and transformations,
+            // but let the unchanged values update as usual
+            Map<ChannelUID, State> states = new HashMap<>(channelLastState);
+            ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+            if (isLinked(lastReadSuccessUID)) {
+                states.put(lastReadSuccessUID, new DateTimeType());
+            }
+            updateExpiredChannels(states);
+            logger.trace("Thing {} registers unchanged (raw value {}), channels not re-processed", thing.getUID(),
+                    rawValue);
+            return;
+        }
+        this.lastRawValue = rawValue;
+        lastRawValueProcessedMillis = now;
+
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
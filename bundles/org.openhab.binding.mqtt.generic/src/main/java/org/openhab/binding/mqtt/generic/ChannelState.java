@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -27,7 +28,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.types.TypeParser;
+import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.values.TextValue;
@@ -61,6 +62,10 @@ public class ChannelState implements MqttMessageSubscriber {
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    private @Nullable SharedPayloadTransformations sharedTransformations;
+    // The last payload and the state it resulted in, to skip processing a repeated payload
+    private byte @Nullable [] lastPayload;
+    private @Nullable State lastPayloadState;
 
     /**
      * Creates a new channel state.
@@ -92,6 +97,7 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public void addTransformation(ChannelStateTransformation transformation) {
         transformationsIn.add(transformation);
+        lastPayload = null;
     }
 
     /**
@@ -104,11 +110,29 @@ public class ChannelState implements MqttMessageSubscriber {
         transformationsOut.add(transformation);
     }
 
+    /**
+     * Share decoding and transforming of incoming messages with other channel states subscribed to the same topic.
+     *
+     * @param sharedTransformations The shared transformations of the state topic, or null to process every message on
+     *            its own
+     */
+    public void setSharedTransformations(@Nullable SharedPayloadTransformations sharedTransformations) {
+        final SharedPayloadTransformations previous = this.sharedTransformations;
+        if (previous != null) {
+            previous.removeChannel(this);
+        }
+        this.sharedTransformations = sharedTransformations;
+        if (sharedTransformations != null) {
+            sharedTransformations.addChannel(this);
+        }
+    }
+
     /**
      * Clear transformations
      */
     public void clearTransformations() {
         transformationsIn.clear();
+        lastPayload = null;
         transformationsOut.clear();
     }
 
@@ -145,17 +169,33 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Fast path: The payload equals the last one and the value has not changed since. Processing the payload
+        // again would result in the same state.
+        final byte @Nullable [] lastPayload = this.lastPayload;
+        if (lastPayload != null && lastPayloadState == cachedValue.getChannelState()
+                && Arrays.equals(lastPayload, payload)) {
+            notifyCachedState(channelStateUpdateListener);
+            receivedOrTimeout();
+            return;
+        }
+        this.lastPayload = null;
+
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
+            rememberPayload(payload);
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
             receivedOrTimeout();
             return;
         }
 
         // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
+        final SharedPayloadTransformations sharedTransformations = this.sharedTransformations;
+        String strValue = sharedTransformations != null ? sharedTransformations.decode(payload)
+                : new String(payload, StandardCharsets.UTF_8);
         for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
+            String transformedValue = sharedTransformations != null
+                    ? sharedTransformations.transform(t, strValue, t::processValue)
+                    : t.processValue(strValue);
             if (transformedValue != null) {
                 strValue = transformedValue;
             } else {
@@ -172,7 +212,7 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+        Command command = cachedValue.parseCommand(strValue);
         if (command == null) {
             logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
                     cachedValue.getClass().getSimpleName());
@@ -196,13 +236,28 @@ public class ChannelState implements MqttMessageSubscriber {
             receivedOrTimeout();
             return;
         }
+        // Relative commands like INCREASE change the state again with every message
+        if (command instanceof State) {
+            rememberPayload(payload);
+        }
+
+        notifyCachedState(channelStateUpdateListener);
+        receivedOrTimeout();
+    }
 
-        if (config.postCommand) {
+    private void rememberPayload(byte[] payload) {
+        lastPayload = payload;
+        lastPayloadState = cachedValue.getChannelState();
+    }
+
+    private void notifyCachedState(ChannelStateUpdateListener channelStateUpdateListener) {
+        if (cachedValue.isBinary()) {
+            channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+        } else if (config.postCommand) {
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
         }
-        receivedOrTimeout();
     }
 
     /**
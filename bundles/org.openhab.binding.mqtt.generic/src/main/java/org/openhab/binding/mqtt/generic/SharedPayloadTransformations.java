@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares the work of processing an MQTT message between the {@link ChannelState}s of a thing that are subscribed to
+ * the same state topic.
+ * <p>
+ * The broker connection hands the same payload to every subscriber of a topic. The payload is decoded only once, and
+ * the first transformation of every channel on the topic is executed in one batch with the first channel receiving
+ * the message. All transformations are applied to the same string instance back to back, so transformation services
+ * caching their parsed input, like JSONPATH and JINJA, parse the message only once for all channels. A transformation
+ * shared by several channels (same service, pattern and input) is executed only once per message. Results are only
+ * shared within one message, the next message runs all transformations again, so changed transformation files and
+ * time dependent scripts are picked up.
+ * </p>
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class SharedPayloadTransformations {
+    private final Logger logger = LoggerFactory.getLogger(SharedPayloadTransformations.class);
+
+    private static class Result {
+        private final String input;
+        private final @Nullable String output;
+
+        private Result(String input, @Nullable String output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    /**
+     * The channels subscribed to the topic
+     */
+    private final List<ChannelState> channels = new CopyOnWriteArrayList<>();
+
+    private byte @Nullable [] lastPayload;
+    private String lastDecoded = "";
+    /**
+     * Counts the decoded payloads, so results computed for a previous message are never stored for the current one
+     */
+    private long message;
+
+    /**
+     * Results of the transformations of the current message, by service name and pattern. Guarded by the lock of this
+     * instance
+     */
+    private final Map<String, Result> results = new HashMap<>();
+
+    /**
+     * Add a channel subscribed to the topic, its first transformation is executed with the batch of each message
+     *
+     * @param channel The channel state
+     */
+    public void addChannel(ChannelState channel) {
+        channels.add(channel);
+    }
+
+    /**
+     * Remove a channel added by {@link #addChannel(ChannelState)}
+     *
+     * @param channel The channel state
+     */
+    public void removeChannel(ChannelState channel) {
+        channels.remove(channel);
+    }
+
+    /**
+     * Decode an UTF-8 payload, re-using the string decoded from the same payload instance
+     *
+     * A different payload instance is a new message, the transformation results of the previous message are dropped
+     * and the first transformation of all channels is executed on the new message.
+     *
+     * @param payload The payload received from the broker connection
+     * @return The decoded payload
+     */
+    public String decode(byte[] payload) {
+        String decoded;
+        synchronized (this) {
+            if (payload == lastPayload) {
+                return lastDecoded;
+            }
+            decoded = new String(payload, StandardCharsets.UTF_8);
+            lastDecoded = decoded;
+            lastPayload = payload;
+            message++;
+            results.clear();
+        }
+        transformAll(decoded);
+        return decoded;
+    }
+
+    /**
+     * Execute the first transformation of every channel on the topic, so all transformations of the message are
+     * applied to the same input in one go
+     */
+    private void transformAll(String value) {
+        for (ChannelState channel : channels) {
+            if (channel.cachedValue.isBinary() || channel.transformationsIn.isEmpty()) {
+                continue;
+            }
+            ChannelStateTransformation transformation = channel.transformationsIn.get(0);
+            try {
+                transform(transformation, value, transformation::processValue);
+            } catch (RuntimeException e) {
+                // not stored, so the channel executes the transformation again and handles the failure itself
+                logger.debug("Transformation {}:{} failed for channel {}", transformation.serviceName,
+                        transformation.pattern, channel.channelUID(), e);
+            }
+        }
+    }
+
+    /**
+     * Transform a value, re-using the result of the same transformation and value for the current message
+     *
+     * The transformation itself is executed without holding the lock of this instance.
+     *
+     * @param transformation The transformation
+     * @param value The value to transform
+     * @param transform Function executing the transformation
+     * @return The transformed value, null if the transformation discarded the value
+     */
+    public @Nullable String transform(ChannelStateTransformation transformation, String value,
+            Function<String, @Nullable String> transform) {
+        String key = transformation.serviceName + ':' + transformation.pattern;
+        long currentMessage;
+        synchronized (this) {
+            currentMessage = message;
+            Result result = results.get(key);
+            if (result != null && (result.input == value || result.input.equals(value))) {
+                return result.output;
+            }
+        }
+        String output = transform.apply(value);
+        synchronized (this) {
+            if (currentMessage == message) {
+                results.put(key, new Result(value, output));
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Forget the cached payload and results, e.g. when the connection is closed
+     */
+    public synchronized void clear() {
+        lastPayload = null;
+        lastDecoded = "";
+        message++;
+        results.clear();
+    }
+}
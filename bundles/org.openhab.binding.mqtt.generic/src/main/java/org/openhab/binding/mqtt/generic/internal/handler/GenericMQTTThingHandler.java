@@ -37,6 +37,7 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.ChannelStateTransformation;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
+import org.openhab.binding.mqtt.generic.SharedPayloadTransformations;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.generic.values.ValueFactory;
@@ -54,6 +55,10 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     final Map<ChannelUID, ChannelState> channelStateByChannelUID = new HashMap<>();
     protected final MqttChannelStateDescriptionProvider stateDescProvider;
     protected final TransformationServiceProvider transformationServiceProvider;
+    /**
+     * Channels sharing a state topic decode and transform each message only once, by state topic
+     */
+    protected final Map<String, SharedPayloadTransformations> sharedTransformationsByTopic = new HashMap<>();
 
     /**
      * Creates a new Thing handler for generic MQTT channels.
@@ -93,6 +98,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     @Override
     protected void stop() {
         channelStateByChannelUID.values().forEach(c -> c.getCache().resetState());
+        sharedTransformationsByTopic.values().forEach(SharedPayloadTransformations::clear);
     }
 
     @Override
@@ -103,6 +109,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
         // there is a design flaw, we can't clean up our stuff because it is needed by the super-class on disposal for
         // unsubscribing
         channelStateByChannelUID.clear();
+        sharedTransformationsByTopic.clear();
     }
 
     @Override
@@ -123,6 +130,10 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     protected ChannelState createChannelState(ChannelConfig channelConfig, ChannelUID channelUID, Value valueState) {
         ChannelState state = new ChannelState(channelConfig, channelUID, valueState, this);
+        if (StringUtils.isNotBlank(channelConfig.stateTopic)) {
+            state.setSharedTransformations(sharedTransformationsByTopic.computeIfAbsent(channelConfig.stateTopic,
+                    topic -> new SharedPayloadTransformations()));
+        }
         String[] transformations;
 
         // Incoming value transformations
@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.generic.tools.WildcardTopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -107,6 +108,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
     };
     private transient boolean complete = false;
+    private transient @Nullable WildcardTopicRouter router;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -145,12 +147,29 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
             return CompletableFuture.completedFuture(null);
         }
 
-        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> connection.unsubscribe(m.topic, m))
+        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> m.unsubscribe(connection))
                 .toArray(CompletableFuture[]::new);
         subscriptions.clear();
         return CompletableFuture.allOf(futures);
     }
 
+    /**
+     * Receive the field topics through the given router, which already subscribed to a parent topic with a wildcard,
+     * instead of subscribing to each field topic on the broker.
+     *
+     * @param router A router, or null to subscribe to each field topic
+     */
+    public void setTopicRouter(@Nullable WildcardTopicRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * Return the router set with {@link #setTopicRouter(WildcardTopicRouter)}, if any.
+     */
+    public @Nullable WildcardTopicRouter getTopicRouter() {
+        return router;
+    }
+
     /**
      * Subscribe to all subtopics on a MQTT broker connection base topic that match field names of s java object.
      * The fields will be kept in sync with their respective topics. Optionally, you can register update-observers for
@@ -245,7 +264,9 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
 
         final String topic = basetopic + "/" + localPrefix + field.getName();
 
-        return createSubscriber(scheduler, field, topic, mandatory);
+        SubscribeFieldToMQTTtopic subscriber = createSubscriber(scheduler, field, topic, mandatory);
+        subscriber.setTopicRouter(router);
+        return subscriber;
     }
 
     /**
@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.WildcardTopicRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +48,8 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private final boolean mandatory;
     private boolean receivedValue = false;
+    private @Nullable WildcardTopicRouter router;
+    private @Nullable WildcardTopicRouter subscribedRouter;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -74,6 +77,16 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         this.mandatory = mandatory;
     }
 
+    /**
+     * Subscribe through the given router instead of the broker connection, if the router has subscribed to the base
+     * topic of this field topic.
+     *
+     * @param router A router or null to always subscribe on the broker connection
+     */
+    public void setTopicRouter(@Nullable WildcardTopicRouter router) {
+        this.router = router;
+    }
+
     static Object numberConvert(Object value, Class<?> type) throws IllegalArgumentException, NumberFormatException {
         Object result = value;
         // Handle the conversion case of BigDecimal to Float,Double,Long,Integer and the respective
@@ -180,7 +193,16 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        final WildcardTopicRouter router = this.router;
+        final CompletableFuture<Boolean> subscribed;
+        if (router != null && router.isStarted() && router.isRouted(topic)) {
+            subscribedRouter = router;
+            subscribed = router.subscribe(topic, this);
+        } else {
+            subscribedRouter = null;
+            subscribed = connection.subscribe(topic, this);
+        }
+        subscribed.exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
@@ -197,6 +219,18 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         return future;
     }
 
+    /**
+     * Unsubscribe from the MQTT topic, on the router if subscribed through one.
+     *
+     * @param connection An MQTT connection.
+     * @return Returns a future that completes as soon as the unsubscription has been performed.
+     */
+    public CompletableFuture<Boolean> unsubscribe(MqttBrokerConnection connection) {
+        final WildcardTopicRouter router = subscribedRouter;
+        subscribedRouter = null;
+        return router != null ? router.unsubscribe(topic, this) : connection.unsubscribe(topic, this);
+    }
+
     /**
      * Return true if the corresponding field has received a value at least once.
      */
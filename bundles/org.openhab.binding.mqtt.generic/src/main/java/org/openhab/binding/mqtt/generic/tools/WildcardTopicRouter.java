@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscribes once to all topics below a base topic ("base/topic/#") and routes the received messages to the
+ * subscribers of single topics, instead of subscribing to every topic on the broker.
+ *
+ * <p>
+ * Subscribers are kept in a topic tree with one level per topic level. The last payload of every topic is kept as
+ * well: A subscriber that is added after the retained message of its topic was received gets that payload right
+ * away, like the broker would send the retained message of a new subscription.
+ * </p>
+ *
+ * <p>
+ * A retain filter can limit the stored payloads to the topics that will be subscribed to later on, so that the
+ * payloads of other topics below the base topic, e.g. the values of all Homie properties, are not kept in memory.
+ * </p>
+ *
+ * Only exact topics can be subscribed to, wildcards are not supported.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class WildcardTopicRouter implements MqttMessageSubscriber {
+    private final Logger logger = LoggerFactory.getLogger(WildcardTopicRouter.class);
+
+    private static class TopicNode {
+        private final Map<String, TopicNode> children = new HashMap<>();
+        private final List<MqttMessageSubscriber> subscribers = new ArrayList<>(1);
+        private byte @Nullable [] payload;
+    }
+
+    private final String baseTopic;
+    private final String prefix;
+    private final Predicate<String> retain;
+
+    // guarded by the lock of this instance
+    private final TopicNode root = new TopicNode();
+    private @Nullable MqttBrokerConnection connection;
+    private boolean started = false;
+
+    /**
+     * Creates a router for all topics below the given base topic.
+     *
+     * @param baseTopic The base topic, e.g. "homie/device"
+     */
+    public WildcardTopicRouter(String baseTopic) {
+        this(baseTopic, topic -> true);
+    }
+
+    /**
+     * Creates a router for all topics below the given base topic, that only stores the payloads of the topics
+     * accepted by the retain filter for later subscribers.
+     *
+     * @param baseTopic The base topic, e.g. "homie/device"
+     * @param retain Returns true for a topic whose last payload should be passed to a subscriber added later on
+     */
+    public WildcardTopicRouter(String baseTopic, Predicate<String> retain) {
+        this.baseTopic = baseTopic;
+        this.prefix = baseTopic + "/";
+        this.retain = retain;
+    }
+
+    /**
+     * Subscribe to "base/topic/#" on the given connection. A subscription on another connection is removed first.
+     *
+     * @param connection A broker connection
+     * @return A future that completes with true if the wildcard subscription succeeded
+     */
+    public CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        final MqttBrokerConnection oldConnection;
+        synchronized (this) {
+            oldConnection = this.connection;
+            if (oldConnection == connection) {
+                return CompletableFuture.completedFuture(started);
+            }
+            this.connection = connection;
+            started = false;
+            clearPayloads(root);
+        }
+        if (oldConnection != null) {
+            oldConnection.unsubscribe(prefix + "#", this);
+        }
+        return connection.subscribe(prefix + "#", this).handle((result, e) -> {
+            if (e != null || !Boolean.TRUE.equals(result)) {
+                logger.debug("Failed to subscribe to {}/#, subscribing to single topics instead", baseTopic, e);
+                return false;
+            }
+            synchronized (this) {
+                started = this.connection == connection;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Remove the wildcard subscription, all subscribers and the stored payloads.
+     *
+     * @return A future that completes as soon as the wildcard subscription has been removed
+     */
+    public CompletableFuture<Boolean> stop() {
+        final MqttBrokerConnection connection;
+        synchronized (this) {
+            connection = this.connection;
+            this.connection = null;
+            started = false;
+            root.children.clear();
+            root.subscribers.clear();
+            root.payload = null;
+        }
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(prefix + "#", this);
+    }
+
+    /**
+     * Return true if the wildcard subscription is active, so that {@link #subscribe(String, MqttMessageSubscriber)}
+     * receives messages.
+     */
+    public synchronized boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Return true if the topic is below the base topic of this router.
+     */
+    public boolean isRouted(String topic) {
+        return topic.startsWith(prefix) && topic.length() > prefix.length();
+    }
+
+    /**
+     * Route messages of the given topic to the subscriber. The last payload received for the topic, if any, is
+     * passed to the subscriber right away.
+     *
+     * @param topic A topic below the base topic of this router
+     * @param subscriber The subscriber
+     * @return A completed future
+     */
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (!isRouted(topic)) {
+            throw new IllegalArgumentException("Topic " + topic + " is not below " + baseTopic);
+        }
+        final byte @Nullable [] payload;
+        synchronized (this) {
+            TopicNode node = findOrCreate(topic);
+            node.subscribers.add(subscriber);
+            payload = node.payload;
+        }
+        if (payload != null) {
+            deliver(subscriber, topic, payload);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Stop routing messages of the given topic to the subscriber.
+     *
+     * @param topic A topic below the base topic of this router
+     * @param subscriber The subscriber
+     * @return A completed future, true if the subscriber was subscribed
+     */
+    public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        synchronized (this) {
+            TopicNode node = find(topic);
+            return CompletableFuture.completedFuture(node != null && node.subscribers.remove(subscriber));
+        }
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        if (!isRouted(topic)) {
+            return;
+        }
+        final MqttMessageSubscriber[] subscribers;
+        synchronized (this) {
+            TopicNode node = find(topic);
+            if (node == null) {
+                if (payload.length == 0 || !retain.test(topic)) {
+                    return;
+                }
+                node = findOrCreate(topic);
+            }
+            if (retain.test(topic)) {
+                // An empty payload removes a retained message
+                node.payload = payload.length == 0 ? null : payload;
+            }
+            subscribers = node.subscribers.toArray(new MqttMessageSubscriber[node.subscribers.size()]);
+        }
+        for (MqttMessageSubscriber subscriber : subscribers) {
+            deliver(subscriber, topic, payload);
+        }
+    }
+
+    /**
+     * Pass a message to a subscriber. A failing subscriber must not keep the other subscribers of the topic, or the
+     * caller of {@link #subscribe(String, MqttMessageSubscriber)}, from receiving the message.
+     */
+    private void deliver(MqttMessageSubscriber subscriber, String topic, byte[] payload) {
+        try {
+            subscriber.processMessage(topic, payload);
+        } catch (RuntimeException e) {
+            logger.warn("Subscriber {} failed to process a message of topic {}", subscriber, topic, e);
+        }
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private @Nullable TopicNode find(String topic) {
+        if (!isRouted(topic)) {
+            return null;
+        }
+        @Nullable
+        TopicNode node = root;
+        int start = prefix.length();
+        while (node != null) {
+            int end = topic.indexOf('/', start);
+            if (end < 0) {
+                return node.children.get(topic.substring(start));
+            }
+            node = node.children.get(topic.substring(start, end));
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private TopicNode findOrCreate(String topic) {
+        TopicNode node = root;
+        for (String level : topic.substring(prefix.length()).split("/", -1)) {
+            node = node.children.computeIfAbsent(level, l -> new TopicNode());
+        }
+        return node;
+    }
+
+    private static void clearPayloads(TopicNode node) {
+        node.payload = null;
+        node.children.values().forEach(WildcardTopicRouter::clearPayloads);
+    }
+}
@@ -15,17 +15,29 @@ package org.openhab.binding.mqtt.generic.values;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
 import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.StateDescriptionFragmentBuilder;
+import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.core.types.UnDefType;
 
 /**
@@ -53,10 +65,54 @@ public abstract class Value {
     protected State state = UnDefType.UNDEF;
     protected final List<Class<? extends Command>> commandTypes;
     private final String itemType;
+    // One parser per supported command type, in the same order
+    private final List<Function<String, @Nullable Command>> commandParsers;
 
     protected Value(String itemType, List<Class<? extends Command>> commandTypes) {
         this.itemType = itemType;
         this.commandTypes = commandTypes;
+        this.commandParsers = commandTypes.stream().map(Value::createCommandParser).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a parser that behaves like {@link TypeParser} for a single command type: It returns the result of the
+     * static "valueOf(String)" method of the type, or null if that method fails. Known types are parsed directly, all
+     * others through {@link TypeParser}.
+     */
+    private static Function<String, @Nullable Command> createCommandParser(Class<? extends Command> type) {
+        if (type.isEnum()) {
+            // Enum.valueOf() matches the constant names exactly
+            Map<String, Command> constants = new HashMap<>();
+            Arrays.stream(type.getEnumConstants()).forEach(c -> constants.put(((Enum<?>) c).name(), c));
+            return constants::get;
+        } else if (type == StringType.class) {
+            return StringType::valueOf;
+        } else if (type == DecimalType.class) {
+            return valueOf(DecimalType::valueOf);
+        } else if (type == PercentType.class) {
+            return valueOf(PercentType::valueOf);
+        } else if (type == QuantityType.class) {
+            return valueOf(QuantityType::valueOf);
+        } else if (type == HSBType.class) {
+            return valueOf(HSBType::valueOf);
+        } else if (type == DateTimeType.class) {
+            return valueOf(DateTimeType::valueOf);
+        } else if (type == PointType.class) {
+            return valueOf(PointType::valueOf);
+        }
+        final List<Class<? extends Command>> types = Collections.singletonList(type);
+        return value -> TypeParser.parseCommand(types, value);
+    }
+
+    private static Function<String, @Nullable Command> valueOf(Function<String, Command> valueOf) {
+        return value -> {
+            try {
+                return valueOf.apply(value);
+            } catch (RuntimeException e) {
+                // Not parsable into this type, like TypeParser
+                return null;
+            }
+        };
     }
 
     /**
@@ -79,6 +135,24 @@ public abstract class Value {
         return commandTypes;
     }
 
+    /**
+     * Parses an incoming MQTT value into the first of the {@link #getSupportedCommandTypes()} that accepts it.
+     * This gives the same result as {@link TypeParser#parseCommand(List, String)}, but without looking up the
+     * "valueOf" methods by reflection for every value.
+     *
+     * @param value The MQTT value
+     * @return A command or null if the value could not be parsed into any of the supported command types
+     */
+    public @Nullable Command parseCommand(String value) {
+        for (Function<String, @Nullable Command> parser : commandParsers) {
+            Command command = parser.apply(value);
+            if (command != null) {
+                return command;
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the item-type (one of {@link CoreItemFactory}).
      */
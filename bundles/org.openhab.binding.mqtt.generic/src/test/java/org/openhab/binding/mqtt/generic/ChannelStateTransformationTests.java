@@ -132,4 +132,22 @@ public class ChannelStateTransformationTests {
         verify(callback).stateUpdated(eq(textChannelUID), argThat(arg -> "23.2".equals(arg.toString())));
         assertThat(channelConfig.getCache().getChannelState().toString(), is("23.2"));
     }
+
+    @SuppressWarnings("null")
+    @Test
+    public void sharedPayloadIsTransformedOnce() throws Exception {
+        when(jsonPathService.transform(jsonPathPattern, jsonPathJSON)).thenReturn("23.2");
+
+        thingHandler.initialize();
+        ChannelState channelConfig = thingHandler.getChannelState(textChannelUID);
+        channelConfig.setChannelStateUpdateListener(thingHandler);
+
+        // The broker connection hands the same payload to all subscribers of the topic
+        byte payload[] = jsonPathJSON.getBytes();
+        channelConfig.processMessage(channelConfig.getStateTopic(), payload);
+        channelConfig.processMessage(channelConfig.getStateTopic(), payload);
+
+        verify(jsonPathService, times(1)).transform(jsonPathPattern, jsonPathJSON);
+        verify(callback, times(2)).stateUpdated(eq(textChannelUID), argThat(arg -> "23.2".equals(arg.toString())));
+    }
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.values.TextValue;
+
+/**
+ * Tests cases for {@link SharedPayloadTransformations}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class SharedPayloadTransformationsTests {
+
+    private final SharedPayloadTransformations shared = new SharedPayloadTransformations();
+    private final ChannelStateTransformation transformation = new ChannelStateTransformation("JSONPATH", "$.temp",
+            mock(TransformationServiceProvider.class));
+    private final AtomicInteger transformations = new AtomicInteger();
+
+    private String transform(String value) {
+        return shared.transform(transformation, value, input -> "result " + transformations.incrementAndGet());
+    }
+
+    @Test
+    public void transformationIsSharedWithinOneMessage() {
+        byte[] payload = "{\"temp\":23.2}".getBytes(StandardCharsets.UTF_8);
+
+        String first = transform(shared.decode(payload));
+        String second = transform(shared.decode(payload));
+
+        assertThat(transformations.get(), is(1));
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void transformationIsExecutedAgainForTheNextMessage() {
+        // Every message has its own payload instance, even with the same content
+        transform(shared.decode("{\"temp\":23.2}".getBytes(StandardCharsets.UTF_8)));
+        String next = transform(shared.decode("{\"temp\":23.2}".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(transformations.get(), is(2));
+        assertThat(next, is("result 2"));
+    }
+
+    @Test
+    public void transformationsOfAllChannelsOnTheTopicRunInOneBatch() throws Exception {
+        List<String> sources = new ArrayList<>();
+        TransformationService service = mock(TransformationService.class);
+        when(service.transform(anyString(), anyString())).thenAnswer(invocation -> {
+            sources.add(invocation.getArgument(1));
+            return "result of " + invocation.getArgument(0);
+        });
+        TransformationServiceProvider provider = mock(TransformationServiceProvider.class);
+        when(provider.getTransformationService(anyString())).thenReturn(service);
+        ChannelStateUpdateListener listener = mock(ChannelStateUpdateListener.class);
+
+        String[] patterns = { "$.temp", "$.hum", "{{value_json.unit}}" };
+        List<ChannelState> channels = new ArrayList<>();
+        for (String pattern : patterns) {
+            ChannelState channel = new ChannelState(ChannelConfigBuilder.create("sensor/state", null).build(),
+                    new ChannelUID("mqtt:topic:thing:" + channels.size()), new TextValue(), listener);
+            channel.addTransformation(
+                    new ChannelStateTransformation(pattern.startsWith("$") ? "JSONPATH" : "JINJA", pattern, provider));
+            channel.setSharedTransformations(shared);
+            channels.add(channel);
+        }
+        byte[] payload = "{\"temp\":23.2,\"hum\":40,\"unit\":\"C\"}".getBytes(StandardCharsets.UTF_8);
+
+        // The first channel receiving the message transforms it for all channels
+        channels.get(0).processMessage("sensor/state", payload);
+        assertThat(sources.size(), is(patterns.length));
+        channels.get(1).processMessage("sensor/state", payload);
+        channels.get(2).processMessage("sensor/state", payload);
+
+        assertThat(sources.size(), is(patterns.length));
+        for (String source : sources) {
+            assertThat(source, is(sameInstance(sources.get(0))));
+        }
+        for (int i = 0; i < patterns.length; i++) {
+            verify(service).transform(eq(patterns[i]), anyString());
+            verify(listener).updateChannelState(channels.get(i).channelUID(),
+                    new StringType("result of " + patterns[i]));
+        }
+    }
+
+    @Test
+    public void removedChannelIsNotTransformed() throws Exception {
+        TransformationService service = mock(TransformationService.class);
+        when(service.transform(anyString(), anyString())).thenReturn("result");
+        TransformationServiceProvider provider = mock(TransformationServiceProvider.class);
+        when(provider.getTransformationService(anyString())).thenReturn(service);
+        ChannelState channel = new ChannelState(ChannelConfigBuilder.create("sensor/state", null).build(),
+                new ChannelUID("mqtt:topic:thing:removed"), new TextValue(), mock(ChannelStateUpdateListener.class));
+        channel.addTransformation(new ChannelStateTransformation("JSONPATH", "$.temp", provider));
+        channel.setSharedTransformations(shared);
+
+        channel.setSharedTransformations(null);
+        shared.decode("{\"temp\":23.2}".getBytes(StandardCharsets.UTF_8));
+
+        verify(service, never()).transform(anyString(), anyString());
+    }
+}
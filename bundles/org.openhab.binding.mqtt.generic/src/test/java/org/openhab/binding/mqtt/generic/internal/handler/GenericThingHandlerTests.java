@@ -12,7 +12,7 @@
  */
 package org.openhab.binding.mqtt.generic.internal.handler;
 
-import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -193,4 +193,20 @@ public class GenericThingHandlerTests {
         verify(callback).stateUpdated(eq(textChannelUID), argThat(arg -> "UPDATE".equals(arg.toString())));
         assertThat(textValue.getChannelState().toString(), is("UPDATE"));
     }
+
+    @Test
+    public void channelsShareTransformationsByStateTopic() {
+        ChannelState first = thingHandler.createChannelState(ChannelConfigBuilder.create("a/state", null).build(),
+                new ChannelUID(testGenericThing, "first"), new TextValue());
+        ChannelState second = thingHandler.createChannelState(ChannelConfigBuilder.create("a/state", null).build(),
+                new ChannelUID(testGenericThing, "second"), new TextValue());
+        ChannelState other = thingHandler.createChannelState(ChannelConfigBuilder.create("b/state", null).build(),
+                new ChannelUID(testGenericThing, "other"), new TextValue());
+
+        assertThat(thingHandler.sharedTransformationsByTopic.size(), is(2));
+        assertThat(thingHandler.sharedTransformationsByTopic.get("a/state"),
+                is(not(sameInstance(thingHandler.sharedTransformationsByTopic.get("b/state")))));
+        assertThat(first.getStateTopic(), is(second.getStateTopic()));
+        assertThat(other.getStateTopic(), is("b/state"));
+    }
 }
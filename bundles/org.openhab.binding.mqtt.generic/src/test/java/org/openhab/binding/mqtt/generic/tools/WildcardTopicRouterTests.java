@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link WildcardTopicRouter}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class WildcardTopicRouterTests {
+    @Mock
+    MqttBrokerConnection connection;
+
+    @Mock
+    MqttMessageSubscriber subscriber;
+
+    WildcardTopicRouter router;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        router = new WildcardTopicRouter("homie/device");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void subscribesOnceWithWildcard() throws Exception {
+        assertThat(router.start(connection).get(), is(true));
+        assertThat(router.isStarted(), is(true));
+
+        router.subscribe("homie/device/$name", subscriber);
+        router.subscribe("homie/device/node/$name", subscriber);
+        router.subscribe("homie/device/node/property/$datatype", subscriber);
+
+        verify(connection).subscribe(eq("homie/device/#"), eq(router));
+        verifyNoMoreInteractions(connection);
+    }
+
+    @Test
+    public void routesToExactTopic() throws Exception {
+        router.start(connection).get();
+        router.subscribe("homie/device/node/$name", subscriber);
+
+        byte[] payload = bytes("Node");
+        router.processMessage("homie/device/node/$name", payload);
+        router.processMessage("homie/device/$name", bytes("Device"));
+        router.processMessage("homie/device/node/$name/sub", bytes("Other"));
+        router.processMessage("homie/other/node/$name", bytes("Other"));
+
+        verify(subscriber).processMessage("homie/device/node/$name", payload);
+        verifyNoMoreInteractions(subscriber);
+    }
+
+    @Test
+    public void replaysLastPayloadToLateSubscribers() throws Exception {
+        router.start(connection).get();
+        router.processMessage("homie/device/node/$name", bytes("Old"));
+        byte[] payload = bytes("Node");
+        router.processMessage("homie/device/node/$name", payload);
+
+        router.subscribe("homie/device/node/$name", subscriber);
+
+        verify(subscriber).processMessage("homie/device/node/$name", payload);
+        verifyNoMoreInteractions(subscriber);
+    }
+
+    @Test
+    public void emptyPayloadRemovesRetainedValue() throws Exception {
+        router.start(connection).get();
+        router.processMessage("homie/device/node/$name", bytes("Node"));
+        router.processMessage("homie/device/node/$name", new byte[0]);
+
+        router.subscribe("homie/device/node/$name", subscriber);
+
+        verifyZeroInteractions(subscriber);
+    }
+
+    @Test
+    public void unsubscribe() throws Exception {
+        router.start(connection).get();
+        router.subscribe("homie/device/node/$name", subscriber);
+        assertThat(router.unsubscribe("homie/device/node/$name", subscriber).get(), is(true));
+        assertThat(router.unsubscribe("homie/device/node/$name", subscriber).get(), is(false));
+
+        router.processMessage("homie/device/node/$name", bytes("Node"));
+        verifyZeroInteractions(subscriber);
+    }
+
+    @Test
+    public void stopRemovesWildcardSubscription() throws Exception {
+        router.start(connection).get();
+        router.subscribe("homie/device/node/$name", subscriber);
+        router.stop().get();
+
+        assertThat(router.isStarted(), is(false));
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(router));
+        router.processMessage("homie/device/node/$name", bytes("Node"));
+        verifyZeroInteractions(subscriber);
+    }
+
+    @Test
+    public void failingSubscriberDoesNotStopDelivery() throws Exception {
+        MqttMessageSubscriber failing = mock(MqttMessageSubscriber.class);
+        doThrow(new IllegalStateException("failed")).when(failing).processMessage(any(), any());
+        router.start(connection).get();
+        router.subscribe("homie/device/node/$name", failing);
+        router.subscribe("homie/device/node/$name", subscriber);
+
+        byte[] payload = bytes("Node");
+        router.processMessage("homie/device/node/$name", payload);
+
+        verify(failing).processMessage("homie/device/node/$name", payload);
+        verify(subscriber).processMessage("homie/device/node/$name", payload);
+    }
+
+    @Test
+    public void failingSubscriberDoesNotFailSubscribe() throws Exception {
+        MqttMessageSubscriber failing = mock(MqttMessageSubscriber.class);
+        doThrow(new IllegalStateException("failed")).when(failing).processMessage(any(), any());
+        router.start(connection).get();
+        router.processMessage("homie/device/node/$name", bytes("Node"));
+
+        assertThat(router.subscribe("homie/device/node/$name", failing).get(), is(true));
+        verify(failing).processMessage(eq("homie/device/node/$name"), any());
+    }
+
+    @Test
+    public void onlyRetainedTopicsAreStored() throws Exception {
+        router = new WildcardTopicRouter("homie/device", topic -> topic.endsWith("$name"));
+        router.start(connection).get();
+        router.processMessage("homie/device/node/$name", bytes("Node"));
+        router.processMessage("homie/device/node/property", bytes("12"));
+
+        router.subscribe("homie/device/node/$name", subscriber);
+        router.subscribe("homie/device/node/property", subscriber);
+        verify(subscriber).processMessage(eq("homie/device/node/$name"), any());
+        verifyNoMoreInteractions(subscriber);
+
+        // subscribers of topics that are not retained still receive the messages
+        byte[] payload = bytes("13");
+        router.processMessage("homie/device/node/property", payload);
+        verify(subscriber).processMessage("homie/device/node/property", payload);
+    }
+
+    @Test
+    public void notStartedIfWildcardSubscriptionFails() throws Exception {
+        doReturn(CompletableFuture.completedFuture(false)).when(connection).subscribe(any(), any());
+
+        assertThat(router.start(connection).get(), is(false));
+        assertThat(router.isStarted(), is(false));
+    }
+}
@@ -252,6 +252,23 @@ public class ValueTests {
         assertEquals(((PercentType) v.getChannelState()).floatValue(), 11.11f, 0.01f);
     }
 
+    @Test
+    public void parseCommandLikeTypeParser() {
+        Value[] values = { new TextValue(), new OnOffValue(), new OpenCloseValue(),
+                new NumberValue(null, null, null, null), new PercentageValue(null, null, null, null, null),
+                new ColorValue(true, null, null, 10), new RollershutterValue(null, null, null), new DateTimeValue(),
+                new LocationValue(), new ImageValue() };
+        String[] inputs = { "", "ON", "OFF", "on", "OPEN", "CLOSED", "UP", "DOWN", "STOP", "MOVE", "INCREASE",
+                "DECREASE", "0", "50", "100", "101", "-5", "12.5", "21.5 °C", "abc", "1,2,3", "255,255,255",
+                "46.833974, 7.108433", "2019-10-12T07:20:39", "2019-10-12T07:20:39+0200" };
+        for (Value value : values) {
+            for (String input : inputs) {
+                assertEquals(value.getClass().getSimpleName() + " '" + input + "'", p(value, input),
+                        value.parseCommand(input));
+            }
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void percentCalcInvalid() {
         PercentageValue v = new PercentageValue(new BigDecimal(10.0), new BigDecimal(110.0), new BigDecimal(1.0), null,
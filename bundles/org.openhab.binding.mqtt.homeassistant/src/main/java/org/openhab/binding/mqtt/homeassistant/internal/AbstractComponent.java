@@ -227,6 +227,15 @@ public abstract class AbstractComponent<C extends BaseChannelConfiguration> {
         return configHash;
     }
 
+    /**
+     * @param channelConfigurationJson A configuration string
+     * @return Returns true if this component was created from the given configuration string.
+     */
+    public boolean hasConfig(String channelConfigurationJson) {
+        return configHash == channelConfigurationJson.hashCode()
+                && this.channelConfigurationJson.equals(channelConfigurationJson);
+    }
+
     /**
      * Return the channel group type.
      */
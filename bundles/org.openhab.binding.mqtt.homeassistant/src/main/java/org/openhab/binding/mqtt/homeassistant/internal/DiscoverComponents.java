@@ -13,12 +13,16 @@
 package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -38,6 +42,11 @@ import com.google.gson.Gson;
  * Responsible for subscribing to the HomeAssistant MQTT components wildcard topic, either
  * in a time limited discovery mode or as a background discovery.
  *
+ * <p>
+ * Configurations are retained and therefore received again on every reconnect. A configuration that equals the one
+ * of the last component created for the same topic is not parsed again: The known component is reported instead.
+ * </p>
+ *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
@@ -57,6 +66,11 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
 
+    // The last component per configuration topic
+    private final Map<String, AbstractComponent<?>> knownComponents = new ConcurrentHashMap<>();
+    private final AtomicLong parsedConfigs = new AtomicLong();
+    private final AtomicLong skippedConfigs = new AtomicLong();
+
     /**
      * Implement this to get notified of new components
      */
@@ -88,13 +102,26 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         }
 
         HaID haID = new HaID(topic);
-        String config = new String(payload);
+        String config = new String(payload, StandardCharsets.UTF_8);
 
-        AbstractComponent<?> component = null;
+        AbstractComponent<?> component = knownComponents.get(topic);
 
-        if (config.length() > 0) {
+        if (config.isEmpty()) {
+            knownComponents.remove(topic);
+            component = null;
+        } else if (component != null && component.hasConfig(config)) {
+            skippedConfigs.incrementAndGet();
+            logger.trace("Configuration of HomeAssistant thing {} component {} unchanged", haID.objectID,
+                    haID.component);
+        } else {
+            parsedConfigs.incrementAndGet();
             component = CFactory.createComponent(thingUID, haID, config, updateListener, gson,
                     transformationServiceProvider);
+            if (component != null) {
+                knownComponents.put(topic, component);
+            } else {
+                knownComponents.remove(topic);
+            }
         }
         if (component != null) {
             component.setConfigSeen();
@@ -108,6 +135,31 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         }
     }
 
+    /**
+     * Register a component that was created from a configuration, for example restored from the channels of a
+     * thing. The configuration is not parsed again if it is received unchanged.
+     *
+     * @param haID The location of the component
+     * @param component The component
+     */
+    public void addKnownComponent(HaID haID, AbstractComponent<?> component) {
+        knownComponents.put(haID.getTopic("config"), component);
+    }
+
+    /**
+     * @return Returns the number of received configurations that were parsed.
+     */
+    public long getParsedConfigs() {
+        return parsedConfigs.get();
+    }
+
+    /**
+     * @return Returns the number of received configurations that were unchanged and therefore not parsed.
+     */
+    public long getSkippedConfigs() {
+        return skippedConfigs.get();
+    }
+
     /**
      * Start a components discovery.
      *
@@ -179,6 +231,8 @@ public class DiscoverComponents implements MqttMessageSubscriber {
      * @param connection A MQTT broker connection
      */
     public void stopDiscovery() {
+        logger.debug("Stopped discovery for {}: {} configurations parsed, {} unchanged skipped", thingUID,
+                parsedConfigs.get(), skippedConfigs.get());
         subscribeFail(new Throwable("Stopped"));
     }
 }
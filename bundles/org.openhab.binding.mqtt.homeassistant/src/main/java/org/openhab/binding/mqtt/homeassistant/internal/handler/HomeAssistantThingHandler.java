@@ -159,6 +159,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
             if (component != null) {
                 haComponents.put(component.uid().getId(), component);
                 component.addChannelTypes(channelTypeProvider);
+                // an unchanged retained configuration will not be parsed again
+                discoverComponents.addKnownComponent(haID, component);
             } else {
                 logger.warn("Could not restore component {}", thing);
             }
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests that unchanged configurations are not parsed again by {@link DiscoverComponents}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class DiscoverComponentsTests {
+    private static final String TOPIC = "homeassistant/switch/object/config";
+    private static final String CONFIG = "{\"name\":\"Switch\",\"state_topic\":\"switch/state\","
+            + "\"command_topic\":\"switch/set\"}";
+
+    private final ThingUID thingUID = new ThingUID("mqtt", "homeassistant", "thing");
+    private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory())
+            .create();
+    private final List<AbstractComponent<?>> discovered = new ArrayList<>();
+
+    private final ChannelStateUpdateListener updateListener = new ChannelStateUpdateListener() {
+        @Override
+        public void updateChannelState(ChannelUID channelUID, State value) {
+        }
+
+        @Override
+        public void postChannelCommand(ChannelUID channelUID, Command value) {
+        }
+
+        @Override
+        public void triggerChannel(ChannelUID channelUID, String eventPayload) {
+        }
+    };
+
+    private ScheduledExecutorService scheduler;
+    private DiscoverComponents discoverComponents;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        discoverComponents = new DiscoverComponents(thingUID, scheduler, updateListener, gson, name -> null);
+        discoverComponents.discoveredListener = (haID, component) -> discovered.add(component);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void unchangedConfigIsNotParsedAgain() {
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG));
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG));
+
+        assertThat(discovered.size(), is(2));
+        assertThat(discovered.get(1), is(sameInstance(discovered.get(0))));
+        assertThat(discoverComponents.getParsedConfigs(), is(1L));
+        assertThat(discoverComponents.getSkippedConfigs(), is(1L));
+    }
+
+    @Test
+    public void changedConfigIsParsed() {
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG));
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG.replace("Switch", "Other switch")));
+
+        assertThat(discovered.size(), is(2));
+        assertThat(discovered.get(1), is(not(sameInstance(discovered.get(0)))));
+        assertThat(discovered.get(1).name(), is("Other switch"));
+        assertThat(discoverComponents.getParsedConfigs(), is(2L));
+        assertThat(discoverComponents.getSkippedConfigs(), is(0L));
+    }
+
+    @Test
+    public void knownComponentIsReused() {
+        AbstractComponent<?> restored = CFactory.createComponent(thingUID, new HaID(TOPIC), CONFIG, updateListener,
+                gson, name -> null);
+        discoverComponents.addKnownComponent(new HaID(TOPIC), restored);
+
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG));
+
+        assertThat(discovered.size(), is(1));
+        assertThat(discovered.get(0), is(sameInstance(restored)));
+        assertThat(discoverComponents.getParsedConfigs(), is(0L));
+    }
+
+    @Test
+    public void emptyConfigForgetsComponent() {
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG));
+        discoverComponents.processMessage(TOPIC, new byte[0]);
+        discoverComponents.processMessage(TOPIC, bytes(CONFIG));
+
+        assertThat(discovered.size(), is(2));
+        assertThat(discovered.get(1), is(not(sameInstance(discovered.get(0)))));
+        assertThat(discoverComponents.getParsedConfigs(), is(2L));
+    }
+}
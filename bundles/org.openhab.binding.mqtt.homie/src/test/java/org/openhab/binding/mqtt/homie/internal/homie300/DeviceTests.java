@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homie.internal.homie300;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.mqtt.homie.internal.handler.ThingChannelConstants.TEST_HOMIE_THING;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes.ReadyState;
+
+/**
+ * Tests cases for {@link Device}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class DeviceTests {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+
+    @Mock
+    private DeviceCallback callback;
+
+    private final Map<String, String> retained = new LinkedHashMap<>();
+
+    private Device device;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        retained.put("homie/device/$homie", "3.0");
+        retained.put("homie/device/$name", "Device");
+        retained.put("homie/device/$state", "ready");
+        retained.put("homie/device/$nodes", "node");
+        retained.put("homie/device/node/$name", "Node");
+        retained.put("homie/device/node/$properties", "property");
+        retained.put("homie/device/node/property/$name", "Property");
+        retained.put("homie/device/node/property/$datatype", "integer");
+        retained.put("homie/device/node/property", "12");
+
+        // Like the broker, send all retained messages below the subscribed topic
+        doAnswer(invocation -> {
+            MqttMessageSubscriber subscriber = invocation.getArgument(1);
+            retained.forEach((topic, payload) -> subscriber.processMessage(topic,
+                    payload.getBytes(StandardCharsets.UTF_8)));
+            return CompletableFuture.completedFuture(true);
+        }).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+
+        // Timeouts of the optional attributes are reached right away
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return scheduledFuture;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        device = new Device(TEST_HOMIE_THING, callback, new DeviceAttributes());
+        device.initialize("homie", "device", Collections.emptyList());
+    }
+
+    @Test
+    public void subscribeReceivesTheDeviceTreeWithOneSubscription() throws Exception {
+        device.subscribe(connection, scheduler, 500).get(1, TimeUnit.SECONDS);
+
+        verify(connection, times(1)).subscribe(anyString(), any());
+        verify(connection).subscribe(eq("homie/device/#"), any());
+        verify(callback).readyStateChanged(ReadyState.ready);
+
+        assertThat(device.attributes.name, is("Device"));
+        Node node = device.nodes.get("node");
+        assertThat(node, is(notNullValue()));
+        assertThat(node.attributes.name, is("Node"));
+        Property property = node.properties.get("property");
+        assertThat(property, is(notNullValue()));
+        assertThat(property.attributes.name, is("Property"));
+        assertThat(property.attributes.datatype, is(PropertyAttributes.DataTypeEnum.integer_));
+    }
+
+    @Test
+    public void attributeTopicsAreRecognized() {
+        assertTrue(Device.isAttributeTopic("homie/device/$name"));
+        assertTrue(Device.isAttributeTopic("homie/device/node/property/$datatype"));
+        assertFalse(Device.isAttributeTopic("homie/device/node/property"));
+        assertFalse(Device.isAttributeTopic("homie/device/node/property/set"));
+    }
+}
@@ -0,0 +1,415 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.utils.PingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A singleton, which performs the probes of all {@link PresenceDetection} objects of the binding.
+ *
+ * TCP connection attempts are non blocking and are all handled by one selector thread. Probes which need a blocking
+ * call, like the native ping and arping tools, are executed by a bounded pool of long-lived worker threads. If an
+ * equal probe is already running, its result is shared instead of starting another process.
+ *
+ * Every probe has a deadline (timeout + 100 ms, like a whole presence detection had before). The deadline of a
+ * blocking probe starts when a worker thread picks it up, so probes waiting for a free worker do not time out before
+ * they ran. The selector thread keeps the deadlines of all probes in one queue and completes probes that missed it as
+ * unsuccessful. The threads end if there is nothing to do for a while and are started again for the next probe.
+ *
+ * Probe latencies and the queue lengths are logged on debug level every few minutes.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceDetectionEngine {
+    static final int MAX_RUNNING_PROCESS_PROBES = 32;
+    private static final long DEADLINE_MARGIN_IN_MS = 100;
+    private static final long IDLE_TIMEOUT_IN_MS = 60000;
+    private static final long STATISTICS_INTERVAL_IN_NS = TimeUnit.MINUTES.toNanos(5);
+
+    private static @Nullable PresenceDetectionEngine instance;
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+
+    private final ThreadPoolExecutor processExecutor;
+    private final Map<String, ProcessProbe> runningProcessProbes = new ConcurrentHashMap<>();
+    private final Queue<Probe> newProbes = new ConcurrentLinkedQueue<>();
+
+    // Only accessed by the selector thread
+    private final PriorityQueue<Probe> deadlines = new PriorityQueue<>();
+    private long nextStatisticsTime = System.nanoTime() + STATISTICS_INTERVAL_IN_NS;
+
+    // guarded by the lock of this instance
+    private @Nullable Selector selector;
+
+    private final Latency tcpLatency = new Latency();
+    private final Latency processLatency = new Latency();
+    private final Latency processQueueTime = new Latency();
+    private final AtomicInteger pendingConnects = new AtomicInteger();
+    private final AtomicLong coalescedProbes = new AtomicLong();
+    private final AtomicLong timedOutProbes = new AtomicLong();
+
+    /**
+     * Return the engine of the binding.
+     */
+    public static synchronized PresenceDetectionEngine getInstance() {
+        PresenceDetectionEngine engine = instance;
+        if (engine == null) {
+            engine = new PresenceDetectionEngine();
+            instance = engine;
+        }
+        return engine;
+    }
+
+    PresenceDetectionEngine() {
+        AtomicInteger threadCount = new AtomicInteger();
+        processExecutor = new ThreadPoolExecutor(MAX_RUNNING_PROCESS_PROBES, MAX_RUNNING_PROCESS_PROBES,
+                IDLE_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "presenceDetectionProbe-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        processExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Latency statistics of one kind of probes
+     */
+    private static class Latency {
+        private long count;
+        private long sumInNS;
+        private long maxInNS;
+
+        private synchronized void add(long durationInNS) {
+            count++;
+            sumInNS += durationInNS;
+            maxInNS = Math.max(maxInNS, durationInNS);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%d (avg %.1f ms, max %.1f ms)", count, count == 0 ? 0.0 : sumInNS / 1e6 / count,
+                    maxInNS / 1e6);
+        }
+    }
+
+    private abstract class Probe implements Comparable<Probe> {
+        final CompletableFuture<Optional<PingResult>> result = new CompletableFuture<>();
+        final long startTime = System.nanoTime();
+        long deadline;
+
+        /**
+         * Start the deadline of the probe. Must be called before the probe is added to the deadline queue.
+         */
+        void startDeadline(int timeoutInMS) {
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMS + DEADLINE_MARGIN_IN_MS);
+        }
+
+        double elapsedInMS() {
+            return (System.nanoTime() - startTime) / 1e6;
+        }
+
+        @Override
+        public int compareTo(Probe other) {
+            return Long.compare(deadline, other.deadline);
+        }
+
+        /**
+         * Called by the selector thread when the probe is added to the deadline queue
+         */
+        abstract void register(Selector selector);
+
+        /**
+         * Called by the selector thread when the deadline of the probe is over
+         */
+        abstract void timeout();
+    }
+
+    private class ConnectProbe extends Probe {
+        private final SocketChannel channel;
+
+        ConnectProbe(SocketChannel channel, int timeoutInMS) {
+            startDeadline(timeoutInMS);
+            this.channel = channel;
+            pendingConnects.incrementAndGet();
+            result.whenComplete((r, e) -> {
+                pendingConnects.decrementAndGet();
+                tcpLatency.add(System.nanoTime() - startTime);
+                close(channel);
+            });
+        }
+
+        @Override
+        void register(Selector selector) {
+            try {
+                channel.register(selector, SelectionKey.OP_CONNECT, this);
+            } catch (IOException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        void finishConnect() {
+            try {
+                if (channel.finishConnect()) {
+                    result.complete(Optional.of(new PingResult(true, elapsedInMS())));
+                }
+            } catch (ConnectException | NoRouteToHostException e) {
+                result.complete(Optional.of(new PingResult(false, elapsedInMS())));
+            } catch (IOException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        void timeout() {
+            result.complete(Optional.of(new PingResult(false, elapsedInMS())));
+        }
+    }
+
+    private class ProcessProbe extends Probe {
+        private final int timeoutInMS;
+        private volatile @Nullable Future<?> worker;
+
+        ProcessProbe(int timeoutInMS) {
+            this.timeoutInMS = timeoutInMS;
+        }
+
+        void start(String key, Callable<Optional<PingResult>> probe) {
+            result.whenComplete((r, e) -> {
+                runningProcessProbes.remove(key, this);
+                processLatency.add(System.nanoTime() - startTime);
+            });
+            worker = processExecutor.submit(() -> {
+                processQueueTime.add(System.nanoTime() - startTime);
+                if (result.isDone()) {
+                    return;
+                }
+                startDeadline(timeoutInMS);
+                add(this);
+                try {
+                    result.complete(probe.call());
+                } catch (InterruptedException e) {
+                    // Interrupted by timeout()
+                    result.complete(Optional.empty());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+
+        @Override
+        void register(Selector selector) {
+        }
+
+        @Override
+        void timeout() {
+            result.complete(Optional.empty());
+            Future<?> worker = this.worker;
+            if (worker != null) {
+                worker.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Try to establish a TCP connection to the given port.
+     *
+     * @param address The address of the device
+     * @param port The TCP port. Must be not 0.
+     * @param timeoutInMS Timeout in milliseconds
+     * @return A future with the ping result. It is unsuccessful if a timeout occurred or the connection was denied.
+     *         The future completes exceptionally if the connection could not be attempted.
+     */
+    public CompletableFuture<Optional<PingResult>> servicePing(InetAddress address, int port, int timeoutInMS) {
+        long startTime = System.nanoTime();
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(new InetSocketAddress(address, port))) {
+                close(channel);
+                return CompletableFuture.completedFuture(
+                        Optional.of(new PingResult(true, (System.nanoTime() - startTime) / 1e6)));
+            }
+        } catch (ConnectException | NoRouteToHostException e) {
+            close(channel);
+            return CompletableFuture
+                    .completedFuture(Optional.of(new PingResult(false, (System.nanoTime() - startTime) / 1e6)));
+        } catch (IOException e) {
+            close(channel);
+            CompletableFuture<Optional<PingResult>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        ConnectProbe probe = new ConnectProbe(channel, timeoutInMS);
+        add(probe);
+        return probe.result;
+    }
+
+    /**
+     * Execute a blocking probe, e.g. a native ping, on one of the worker threads. If a probe with the same key is
+     * already running, no new probe is executed, but the result of the running probe is returned.
+     *
+     * @param key Identifies equal probes, e.g. by the method, address and timeout
+     * @param timeoutInMS Timeout in milliseconds, counted from the start of the probe on a worker thread. If the probe
+     *            does not finish in time, the worker thread is interrupted and the result is empty.
+     * @param probe The probe
+     * @return A future with the result of the probe. The future completes exceptionally if the probe failed.
+     */
+    public CompletableFuture<Optional<PingResult>> execute(String key, int timeoutInMS,
+            Callable<Optional<PingResult>> probe) {
+        ProcessProbe processProbe = new ProcessProbe(timeoutInMS);
+        ProcessProbe runningProbe = runningProcessProbes.putIfAbsent(key, processProbe);
+        if (runningProbe != null) {
+            coalescedProbes.incrementAndGet();
+            return runningProbe.result;
+        }
+        processProbe.start(key, probe);
+        return processProbe.result;
+    }
+
+    /**
+     * Return a summary of the probe latencies and queue lengths.
+     */
+    public String getStatistics() {
+        return String.format(
+                "TCP probes: %s, pending %d; process probes: %s, queue time %s, queued %d, running %d; coalesced %d, timed out %d",
+                tcpLatency, pendingConnects.get(), processLatency, processQueueTime, processExecutor.getQueue().size(),
+                processExecutor.getActiveCount(), coalescedProbes.get(), timedOutProbes.get());
+    }
+
+    private synchronized void add(Probe probe) {
+        newProbes.add(probe);
+        Selector selector = this.selector;
+        if (selector == null) {
+            try {
+                selector = Selector.open();
+            } catch (IOException e) {
+                probe.result.completeExceptionally(e);
+                newProbes.remove(probe);
+                return;
+            }
+            this.selector = selector;
+            final Selector threadSelector = selector;
+            Thread thread = new Thread(() -> run(threadSelector), "presenceDetectionEngine");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            selector.wakeup();
+        }
+    }
+
+    private void run(Selector selector) {
+        long idleSince = System.nanoTime();
+        try {
+            while (true) {
+                Probe probe;
+                while ((probe = newProbes.poll()) != null) {
+                    probe.register(selector);
+                    deadlines.add(probe);
+                }
+
+                long now = System.nanoTime();
+                while ((probe = deadlines.peek()) != null && (probe.result.isDone() || probe.deadline - now <= 0)) {
+                    deadlines.poll();
+                    if (!probe.result.isDone()) {
+                        timedOutProbes.incrementAndGet();
+                        probe.timeout();
+                    }
+                }
+                logStatistics(now);
+
+                long timeoutInNS;
+                if (probe != null) {
+                    timeoutInNS = probe.deadline - now;
+                    idleSince = now;
+                } else {
+                    timeoutInNS = idleSince + TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_IN_MS) - now;
+                    if (timeoutInNS <= 0 && stopIfIdle(selector)) {
+                        return;
+                    }
+                }
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeoutInNS)));
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    ((ConnectProbe) key.attachment()).finishConnect();
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Presence detection engine failed", e);
+            deadlines.forEach(Probe::timeout);
+            deadlines.clear();
+            synchronized (this) {
+                Probe probe;
+                while ((probe = newProbes.poll()) != null) {
+                    probe.timeout();
+                }
+                this.selector = null;
+            }
+            close(selector);
+        }
+    }
+
+    private synchronized boolean stopIfIdle(Selector selector) {
+        if (!newProbes.isEmpty()) {
+            return false;
+        }
+        this.selector = null;
+        close(selector);
+        return true;
+    }
+
+    private void logStatistics(long now) {
+        if (now - nextStatisticsTime >= 0) {
+            nextStatisticsTime = now + STATISTICS_INTERVAL_IN_NS;
+            logger.debug("Presence detection statistics: {}", getStatistics());
+        }
+    }
+
+    private static void close(@Nullable AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
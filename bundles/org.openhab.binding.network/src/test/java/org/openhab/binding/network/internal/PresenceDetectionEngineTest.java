@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.binding.network.internal.utils.PingResult;
+
+/**
+ * Tests cases for {@link PresenceDetectionEngine}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+    private final PresenceDetectionEngine engine = new PresenceDetectionEngine();
+
+    @Test
+    public void servicePingToOpenPort() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Optional<PingResult> result = engine
+                    .servicePing(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort(), 1000)
+                    .get(2, TimeUnit.SECONDS);
+
+            assertTrue(result.isPresent());
+            assertTrue(result.get().isSuccess());
+        }
+    }
+
+    @Test
+    public void servicePingToClosedPort() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = serverSocket.getLocalPort();
+        }
+
+        Optional<PingResult> result = engine.servicePing(InetAddress.getLoopbackAddress(), port, 1000).get(2,
+                TimeUnit.SECONDS);
+
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isSuccess());
+    }
+
+    @Test
+    public void equalProbesAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Optional<PingResult>> first = engine.execute("icmp 127.0.0.1", 1000, () -> {
+            calls.incrementAndGet();
+            release.await();
+            return Optional.of(new PingResult(true, 1));
+        });
+        CompletableFuture<Optional<PingResult>> second = engine.execute("icmp 127.0.0.1", 1000, () -> {
+            calls.incrementAndGet();
+            return Optional.of(new PingResult(false, 1));
+        });
+        release.countDown();
+
+        assertThat(second, is(sameInstance(first)));
+        assertTrue(first.get(2, TimeUnit.SECONDS).get().isSuccess());
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void probeIsInterruptedAfterDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        CompletableFuture<Optional<PingResult>> result = engine.execute("arp eth0 127.0.0.1", 100, () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return Optional.of(new PingResult(true, 1));
+        });
+
+        assertThat(result.get(2, TimeUnit.SECONDS), is(Optional.empty()));
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        assertThat(engine.getStatistics(), containsString("timed out 1"));
+    }
+
+    @Test
+    public void queuedProbeDoesNotTimeOutBeforeItRan() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < PresenceDetectionEngine.MAX_RUNNING_PROCESS_PROBES; i++) {
+            engine.execute("icmp 10.0.0." + i, 5000, () -> {
+                release.await();
+                return Optional.of(new PingResult(true, 1));
+            });
+        }
+        // all worker threads are busy, the probe waits longer than its timeout for a worker
+        CompletableFuture<Optional<PingResult>> queued = engine.execute("icmp 127.0.0.1", 100,
+                () -> Optional.of(new PingResult(true, 1)));
+        Thread.sleep(500);
+        release.countDown();
+
+        assertTrue(queued.get(2, TimeUnit.SECONDS).get().isSuccess());
+        assertThat(engine.getStatistics(), containsString("timed out 0"));
+    }
+
+    @Test
+    public void failedProbeCompletesExceptionally() throws Exception {
+        CompletableFuture<Optional<PingResult>> result = engine.execute("icmp 127.0.0.1", 1000, () -> {
+            throw new IOException("No ping tool");
+        });
+
+        try {
+            result.get(2, TimeUnit.SECONDS);
+            fail("The probe should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+    }
+}
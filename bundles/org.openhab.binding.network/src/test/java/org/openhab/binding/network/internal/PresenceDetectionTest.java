@@ -21,7 +21,7 @@ import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Collections;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -51,12 +51,11 @@ public class PresenceDetectionTest {
     @Mock
     PresenceDetectionListener listener;
 
-    @Mock
-    ExecutorService executorService;
-
     @Mock
     Consumer<PresenceDetectionValue> callback;
 
+    PresenceDetectionEngine engine;
+
     PresenceDetection subject;
 
     @Before
@@ -70,6 +69,8 @@ public class PresenceDetectionTest {
 
         subject = spy(new PresenceDetection(listener, (int) CACHETIME));
         subject.networkUtils = networkUtils;
+        engine = spy(new PresenceDetectionEngine());
+        subject.engine = engine;
         subject.cache = spy(new ExpiringCacheAsync<PresenceDetectionValue>(CACHETIME, () -> {
             subject.performPresenceDetection(false);
         }));
@@ -91,26 +92,44 @@ public class PresenceDetectionTest {
         subject.waitForPresenceDetection();
     }
 
-    // Depending on the amount of test methods an according amount of threads is spawned.
-    // We will check if they spawn and return in time.
+    // All checks are started at once and the final result is submitted as soon as they are finished.
     @Test
-    public void threadCountTest() {
-        assertNull(subject.executorService);
+    public void checkCountTest() {
+        assertNull(subject.detection);
 
-        doNothing().when(subject).performARPping(any());
-        doNothing().when(subject).performJavaPing();
-        doNothing().when(subject).performSystemPing();
-        doNothing().when(subject).performServicePing(anyInt());
+        CompletableFuture<?> check = new CompletableFuture<>();
+        doReturn(check).when(subject).performARPping(any());
+        doReturn(check).when(subject).performJavaPing();
+        doReturn(check).when(subject).performSystemPing();
+        doReturn(check).when(subject).performServicePing(anyInt());
 
         subject.performPresenceDetection(false);
 
-        // Thread count: ARP + ICMP + 1*TCP
+        // Checks: ARP + ICMP + 1*TCP
         assertThat(subject.detectionChecks, is(3));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detection);
+        verify(listener, times(0)).finalDetectionResult(any());
 
-        subject.waitForPresenceDetection();
+        check.complete(null);
+        assertThat(subject.detectionChecks, is(0));
+        assertNull(subject.detection);
+        verify(listener, times(1)).finalDetectionResult(any());
+    }
+
+    @Test
+    public void unfinishedChecksTest() {
+        doReturn(new CompletableFuture<>()).when(subject).performARPping(any());
+        doReturn(new CompletableFuture<>()).when(subject).performSystemPing();
+        doReturn(new CompletableFuture<>()).when(subject).performServicePing(anyInt());
+
+        subject.performPresenceDetection(true);
+
+        // The final result is submitted after the timeout
         assertThat(subject.detectionChecks, is(0));
-        assertNull(subject.executorService);
+        assertNull(subject.detection);
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertFalse(capture.getValue().isReachable());
     }
 
     @Test
@@ -118,7 +137,8 @@ public class PresenceDetectionTest {
         doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
         doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
                 any(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+        doReturn(CompletableFuture.completedFuture(Optional.of(new PingResult(true, 10)))).when(engine)
+                .servicePing(any(), anyInt(), anyInt());
 
         assertTrue(subject.performPresenceDetection(false));
         subject.waitForPresenceDetection();
@@ -137,28 +157,21 @@ public class PresenceDetectionTest {
 
     @Test
     public void cacheTest() throws InterruptedException, IOException {
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
-                any(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
-
-        doReturn(executorService).when(subject).getThreadsFor(anyInt());
+        CompletableFuture<Optional<PingResult>> pingResult = new CompletableFuture<>();
+        doReturn(pingResult).when(engine).servicePing(any(), anyInt(), anyInt());
+        doReturn(pingResult).when(engine).execute(anyString(), anyInt(), any());
 
         // We expect no valid value
         assertTrue(subject.cache.isExpired());
         // Get value will issue a PresenceDetection internally.
         subject.getValue(callback);
         verify(subject).performPresenceDetection(eq(false));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detection);
         // There should be no straight callback yet
         verify(callback, times(0)).accept(any());
 
-        // Perform the different presence detection threads now
-        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
-        verify(executorService, times(3)).execute(capture.capture());
-        for (Runnable r : capture.getAllValues()) {
-            r.run();
-        }
+        // Finish the different presence detection checks now
+        pingResult.complete(Optional.of(new PingResult(true, 10)));
         // "Wait" for the presence detection to finish
         subject.waitForPresenceDetection();
 
@@ -171,6 +184,9 @@ public class PresenceDetectionTest {
         verify(callback, times(2)).accept(any());
 
         // Invalidate value, we should not get a new callback immediately again
+        CompletableFuture<Optional<PingResult>> nextPingResult = new CompletableFuture<>();
+        doReturn(nextPingResult).when(engine).servicePing(any(), anyInt(), anyInt());
+        doReturn(nextPingResult).when(engine).execute(anyString(), anyInt(), any());
         subject.cache.invalidateValue();
         subject.getValue(callback);
         verify(callback, times(2)).accept(any());
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Snapshot of the transport metrics of a single endpoint
+ *
+ * Latencies are collected into histograms with the bucket upper bounds given by {@link #LATENCY_BUCKETS_MILLIS}. The
+ * last bucket of a histogram counts all values above the last bound.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointMetrics {
+
+    /**
+     * Upper bounds (inclusive) of the latency histogram buckets, in milliseconds
+     */
+    public static final long[] LATENCY_BUCKETS_MILLIS = { 10, 25, 50, 100, 250, 500, 1000, 2500, 5000 };
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final long operations;
+    private final long failedOperations;
+    private final long connectionFailures;
+    private final long ioErrors;
+    private final long timeouts;
+    private final long slaveErrors;
+    private final long transactionIdMismatches;
+    private final long[] transactionLatencyHistogram;
+    private final long[] operationLatencyHistogram;
+    private final long totalBorrowMillis;
+    private final long maxBorrowMillis;
+    private final long totalConnectionMillis;
+    private final long maxConnectionMillis;
+    private final long totalCallbackMillis;
+    private final int queueSize;
+    private final long maxQueueLagMillis;
+    private final long skippedPolls;
+
+    public ModbusEndpointMetrics(ModbusSlaveEndpoint endpoint, long operations, long failedOperations,
+            long connectionFailures, long ioErrors, long timeouts, long slaveErrors, long transactionIdMismatches,
+            long[] transactionLatencyHistogram, long[] operationLatencyHistogram, long totalBorrowMillis,
+            long maxBorrowMillis, long totalConnectionMillis, long maxConnectionMillis, long totalCallbackMillis,
+            int queueSize, long maxQueueLagMillis, long skippedPolls) {
+        this.endpoint = endpoint;
+        this.operations = operations;
+        this.failedOperations = failedOperations;
+        this.connectionFailures = connectionFailures;
+        this.ioErrors = ioErrors;
+        this.timeouts = timeouts;
+        this.slaveErrors = slaveErrors;
+        this.transactionIdMismatches = transactionIdMismatches;
+        this.transactionLatencyHistogram = transactionLatencyHistogram.clone();
+        this.operationLatencyHistogram = operationLatencyHistogram.clone();
+        this.totalBorrowMillis = totalBorrowMillis;
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.totalConnectionMillis = totalConnectionMillis;
+        this.maxConnectionMillis = maxConnectionMillis;
+        this.totalCallbackMillis = totalCallbackMillis;
+        this.queueSize = queueSize;
+        this.maxQueueLagMillis = maxQueueLagMillis;
+        this.skippedPolls = skippedPolls;
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return number of executed read and write operations. An operation is counted once, no matter how many tries it
+     *         took; failed tries are counted by the error counts
+     */
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return number of operations which failed after all tries
+     */
+    public long getFailedOperations() {
+        return failedOperations;
+    }
+
+    /**
+     * @return number of times no connection to the endpoint could be established
+     */
+    public long getConnectionFailures() {
+        return connectionFailures;
+    }
+
+    /**
+     * @return number of tries failing with I/O errors, including timeouts
+     */
+    public long getIOErrors() {
+        return ioErrors;
+    }
+
+    /**
+     * @return number of tries failing since the slave did not respond in time
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return number of tries answered with an exception response by the slave
+     */
+    public long getSlaveErrors() {
+        return slaveErrors;
+    }
+
+    /**
+     * @return number of tries where the transaction id of the response did not match the request
+     */
+    public long getTransactionIdMismatches() {
+        return transactionIdMismatches;
+    }
+
+    /**
+     * @return histogram of the time spent in transactions with the slave per operation
+     */
+    public long[] getTransactionLatencyHistogram() {
+        return transactionLatencyHistogram.clone();
+    }
+
+    /**
+     * @return histogram of the total time per operation, including connection handling and callbacks
+     */
+    public long[] getOperationLatencyHistogram() {
+        return operationLatencyHistogram.clone();
+    }
+
+    /**
+     * @return total time spent waiting to borrow a connection from the pool, including establishing it, in
+     *         milliseconds
+     */
+    public long getTotalBorrowMillis() {
+        return totalBorrowMillis;
+    }
+
+    /**
+     * @return maximum time a single operation waited to borrow a connection, in milliseconds
+     */
+    public long getMaxBorrowMillis() {
+        return maxBorrowMillis;
+    }
+
+    /**
+     * @return total time spent returning and invalidating connections, in milliseconds
+     */
+    public long getTotalConnectionMillis() {
+        return totalConnectionMillis;
+    }
+
+    /**
+     * @return maximum time a single operation spent returning and invalidating connections, in milliseconds
+     */
+    public long getMaxConnectionMillis() {
+        return maxConnectionMillis;
+    }
+
+    /**
+     * @return total time spent in callbacks, in milliseconds
+     */
+    public long getTotalCallbackMillis() {
+        return totalCallbackMillis;
+    }
+
+    /**
+     * @return number of operations waiting for execution
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @return maximum time an operation waited for execution, in milliseconds
+     */
+    public long getMaxQueueLagMillis() {
+        return maxQueueLagMillis;
+    }
+
+    /**
+     * @return number of regular polls skipped since their previous execution was still waiting
+     */
+    public long getSkippedPolls() {
+        return skippedPolls;
+    }
+
+    /**
+     * Estimate the given percentile of a latency histogram
+     *
+     * @param histogram histogram as returned by this class
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket containing the percentile, or -1 when the percentile is above the last bound
+     *         or the histogram is empty
+     */
+    public static long percentileMillis(long[] histogram, double percentile) {
+        long count = Arrays.stream(histogram).sum();
+        if (count == 0) {
+            return -1;
+        }
+        long threshold = (long) Math.ceil(count * percentile / 100.0);
+        long cumulative = 0;
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            cumulative += histogram[i];
+            if (cumulative >= threshold) {
+                return LATENCY_BUCKETS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "ModbusEndpointMetrics(endpoint=%s, operations=%d, failed=%d, connectionFailures=%d, ioErrors=%d, timeouts=%d, slaveErrors=%d, transactionIdMismatches=%d, transactionLatency=%s, operationLatency=%s, borrowMillis=%d, maxBorrowMillis=%d, connectionMillis=%d, maxConnectionMillis=%d, callbackMillis=%d, queueSize=%d, maxQueueLagMillis=%d, skippedPolls=%d)",
+                endpoint, operations, failedOperations, connectionFailures, ioErrors, timeouts, slaveErrors,
+                transactionIdMismatches, Arrays.toString(transactionLatencyHistogram),
+                Arrays.toString(operationLatencyHistogram), totalBorrowMillis, maxBorrowMillis,
+                totalConnectionMillis, maxConnectionMillis, totalCallbackMillis, queueSize, maxQueueLagMillis,
+                skippedPolls);
+    }
+}
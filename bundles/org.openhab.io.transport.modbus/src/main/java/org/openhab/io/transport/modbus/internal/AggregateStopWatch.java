@@ -35,7 +35,12 @@ public class AggregateStopWatch {
     final SimpleStopWatch total = new SimpleStopWatch();
 
     /**
-     * Time for connection related actions
+     * Time waiting to borrow a connection from the pool, including establishing it
+     */
+    final SimpleStopWatch borrow = new SimpleStopWatch();
+
+    /**
+     * Time for returning and invalidating connections
      */
     final SimpleStopWatch connection = new SimpleStopWatch();
 
@@ -57,7 +62,7 @@ public class AggregateStopWatch {
      * Suspend all running stopwatches of this aggregate
      */
     public void suspendAllRunning() {
-        for (SimpleStopWatch watch : new SimpleStopWatch[] { total, connection, transaction, callback }) {
+        for (SimpleStopWatch watch : new SimpleStopWatch[] { total, borrow, connection, transaction, callback }) {
             if (watch.isRunning()) {
                 watch.suspend();
             }
@@ -66,7 +71,8 @@ public class AggregateStopWatch {
 
     @Override
     public String toString() {
-        return String.format("{total: %d ms, connection: %d, transaction=%d, callback=%d}", total.getTotalTimeMillis(),
-                connection.getTotalTimeMillis(), transaction.getTotalTimeMillis(), callback.getTotalTimeMillis());
+        return String.format("{total: %d ms, borrow: %d, connection: %d, transaction=%d, callback=%d}",
+                total.getTotalTimeMillis(), borrow.getTotalTimeMillis(), connection.getTotalTimeMillis(),
+                transaction.getTotalTimeMillis(), callback.getTotalTimeMillis());
     }
 }
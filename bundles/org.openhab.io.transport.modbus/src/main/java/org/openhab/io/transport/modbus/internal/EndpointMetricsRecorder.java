@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.io.InterruptedIOException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Collects the transport metrics of a single endpoint from the {@link AggregateStopWatch} of each operation
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointMetricsRecorder {
+
+    private final ModbusSlaveEndpoint endpoint;
+
+    private long operations;
+    private long failedOperations;
+    private long connectionFailures;
+    private long ioErrors;
+    private long timeouts;
+    private long slaveErrors;
+    private long transactionIdMismatches;
+    private final long[] transactionLatencyHistogram = new long[ModbusEndpointMetrics.LATENCY_BUCKETS_MILLIS.length
+            + 1];
+    private final long[] operationLatencyHistogram = new long[ModbusEndpointMetrics.LATENCY_BUCKETS_MILLIS.length + 1];
+    private long totalBorrowMillis;
+    private long maxBorrowMillis;
+    private long totalConnectionMillis;
+    private long maxConnectionMillis;
+    private long totalCallbackMillis;
+
+    public EndpointMetricsRecorder(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Record a finished operation
+     *
+     * @param timer timer of the operation, with all watches suspended
+     * @param failed whether the operation failed after all tries
+     */
+    public synchronized void operationFinished(AggregateStopWatch timer, boolean failed) {
+        operations++;
+        if (failed) {
+            failedOperations++;
+        }
+        transactionLatencyHistogram[bucket(timer.transaction.getTotalTimeMillis())]++;
+        operationLatencyHistogram[bucket(timer.total.getTotalTimeMillis())]++;
+        long borrowMillis = timer.borrow.getTotalTimeMillis();
+        totalBorrowMillis += borrowMillis;
+        maxBorrowMillis = Math.max(maxBorrowMillis, borrowMillis);
+        long connectionMillis = timer.connection.getTotalTimeMillis();
+        totalConnectionMillis += connectionMillis;
+        maxConnectionMillis = Math.max(maxConnectionMillis, connectionMillis);
+        totalCallbackMillis += timer.callback.getTotalTimeMillis();
+    }
+
+    public synchronized void connectionFailed() {
+        connectionFailures++;
+    }
+
+    /**
+     * Record a try failing with an I/O error
+     *
+     * @param error the I/O error
+     */
+    public synchronized void ioError(Exception error) {
+        ioErrors++;
+        if (isTimeout(error)) {
+            timeouts++;
+        }
+    }
+
+    public synchronized void slaveError() {
+        slaveErrors++;
+    }
+
+    public synchronized void transactionIdMismatch() {
+        transactionIdMismatches++;
+    }
+
+    /**
+     * Create a snapshot of the collected metrics
+     *
+     * @param queue task queue of the endpoint, or null if no task has been queued for the endpoint
+     * @return snapshot of the metrics
+     */
+    public synchronized ModbusEndpointMetrics snapshot(@Nullable EndpointQueue queue) {
+        return new ModbusEndpointMetrics(endpoint, operations, failedOperations, connectionFailures, ioErrors,
+                timeouts, slaveErrors, transactionIdMismatches, transactionLatencyHistogram,
+                operationLatencyHistogram, totalBorrowMillis, maxBorrowMillis, totalConnectionMillis, maxConnectionMillis, totalCallbackMillis,
+                queue == null ? 0 : queue.getQueueSize(), queue == null ? 0 : queue.getMaxLagMillis(),
+                queue == null ? 0 : queue.getSkippedPolls());
+    }
+
+    private static int bucket(long millis) {
+        long[] bounds = ModbusEndpointMetrics.LATENCY_BUCKETS_MILLIS;
+        for (int i = 0; i < bounds.length; i++) {
+            if (millis <= bounds[i]) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+
+    private static boolean isTimeout(Exception error) {
+        // jamod wraps socket timeouts into ModbusIOException, sometimes only keeping the message
+        @Nullable
+        Throwable cause = error;
+        while (cause != null) {
+            if (cause instanceof InterruptedIOException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase().contains("timed out")) {
+                return true;
+            }
+            cause = cause.getCause() == cause ? null : cause.getCause();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serialized task queue of a single endpoint
+ *
+ * Only one task of an endpoint is executed at a time, so a slow endpoint occupies at most one thread of the shared
+ * executor instead of blocking all threads waiting for a connection. Endpoints which accept several transactions in
+ * flight can be configured to execute more tasks concurrently, see {@link #setMaxConcurrency(int)}. Queued tasks are
+ * executed in the order of their {@link Priority}, so writes and one-off polls do not have to wait behind regular
+ * polls. A regular poll is skipped when the previous execution of the same poll is still queued.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointQueue {
+
+    /**
+     * Priority of a queued task, tasks with lower ordinal are executed first
+     */
+    public enum Priority {
+        WRITE,
+        ONE_OFF_POLL,
+        REGULAR_POLL
+    }
+
+    /**
+     * Task in the queue, which acts as the future of the submitted operation
+     */
+    private class QueuedTask extends FutureTask<@Nullable Void> implements ScheduledFuture<@Nullable Void> {
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedMillis = System.currentTimeMillis();
+        private final @Nullable Object key;
+
+        private QueuedTask(Runnable runnable, Priority priority, long sequence, @Nullable Object key) {
+            super(runnable, null);
+            this.priority = priority;
+            this.sequence = sequence;
+            this.key = key;
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            return other == null ? 1 : Long.compare(0, other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                remove(this);
+            }
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointQueue.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+
+    private final PriorityQueue<QueuedTask> queue = new PriorityQueue<>(Comparator
+            .<QueuedTask, Priority> comparing(task -> task.priority).thenComparingLong(task -> task.sequence));
+    private final Set<Object> queuedKeys = new HashSet<>();
+    private long sequence;
+    private int maxConcurrency = 1;
+    private int drainers;
+
+    private long executedTasks;
+    private long skippedPolls;
+    private long lastLagMillis;
+    private long maxLagMillis;
+
+    public EndpointQueue(ModbusSlaveEndpoint endpoint, Executor executor) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+    }
+
+    /**
+     * Queue a task for execution
+     *
+     * @param priority priority of the task
+     * @param runnable operation to execute
+     * @return future representing the execution of the operation
+     */
+    public ScheduledFuture<?> submit(Priority priority, Runnable runnable) {
+        QueuedTask task;
+        synchronized (this) {
+            task = new QueuedTask(runnable, priority, sequence++, null);
+            queue.add(task);
+        }
+        startDraining();
+        return task;
+    }
+
+    /**
+     * Queue an execution of a regular poll, unless the previous execution of the poll is still queued
+     *
+     * @param key key identifying the poll
+     * @param runnable operation to execute
+     * @return whether the execution was queued
+     */
+    public boolean submitRegularPoll(Object key, Runnable runnable) {
+        synchronized (this) {
+            if (!queuedKeys.add(key)) {
+                skippedPolls++;
+                logger.debug("Previous execution of poll {} is still queued for endpoint {}, skipping this one", key,
+                        endpoint);
+                return false;
+            }
+            queue.add(new QueuedTask(runnable, Priority.REGULAR_POLL, sequence++, key));
+        }
+        startDraining();
+        return true;
+    }
+
+    /**
+     * Set the number of tasks executed concurrently
+     *
+     * @param maxConcurrency maximum number of tasks executed at the same time, at least 1
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        synchronized (this) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+        }
+        startDraining();
+    }
+
+    private void startDraining() {
+        int started = 0;
+        synchronized (this) {
+            // each drainer executes one task at a time, start as many as there are tasks to execute
+            while (drainers < maxConcurrency && queue.size() > started) {
+                drainers++;
+                started++;
+            }
+        }
+        for (int i = 0; i < started; i++) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Could not execute queued tasks of endpoint {}: {}", endpoint, e.getMessage());
+                synchronized (this) {
+                    drainers -= started - i;
+                }
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            QueuedTask task;
+            synchronized (this) {
+                // when the concurrency has been lowered, surplus drainers stop and leave the tasks to the others
+                task = drainers > maxConcurrency ? null : queue.poll();
+                if (task == null) {
+                    drainers--;
+                    return;
+                }
+                Object key = task.key;
+                if (key != null) {
+                    queuedKeys.remove(key);
+                }
+                lastLagMillis = System.currentTimeMillis() - task.enqueuedMillis;
+                maxLagMillis = Math.max(maxLagMillis, lastLagMillis);
+                executedTasks++;
+            }
+            // exceptions are captured by the future
+            task.run();
+        }
+    }
+
+    private synchronized void remove(QueuedTask task) {
+        if (queue.remove(task)) {
+            Object key = task.key;
+            if (key != null) {
+                queuedKeys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Cancel all queued tasks
+     */
+    public void clear() {
+        QueuedTask[] tasks;
+        synchronized (this) {
+            tasks = queue.toArray(new QueuedTask[0]);
+            queue.clear();
+            queuedKeys.clear();
+        }
+        for (QueuedTask task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return number of tasks waiting for execution
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of tasks taken for execution
+     */
+    public synchronized long getExecutedTasks() {
+        return executedTasks;
+    }
+
+    /**
+     * @return number of regular poll executions skipped since the previous execution was still queued
+     */
+    public synchronized long getSkippedPolls() {
+        return skippedPolls;
+    }
+
+    /**
+     * @return time the most recently executed task waited in the queue, in milliseconds
+     */
+    public synchronized long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    /**
+     * @return maximum time a task waited in the queue, in milliseconds
+     */
+    public synchronized long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("EndpointQueue(endpoint=%s, queued=%d, running=%d, executed=%d, skippedPolls=%d, "
+                + "lag=%dms, maxLag=%dms)", endpoint, queue.size(), drainers, executedTasks, skippedPolls,
+                lastLagMillis, maxLagMillis);
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll task reading the combined range of several poll tasks with a single request
+ *
+ * The response is sliced and passed to the callbacks of the merged tasks, each with its original request. Only tasks
+ * reading from the same endpoint, slave and with the same function code are merged, and only as long as the combined
+ * request stays within the limits of the function code. A merged task skips the callbacks of tasks which are no longer
+ * active, e.g. since they have been unregistered after the merged task was queued.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MergedPollTask implements PollTask {
+
+    /**
+     * Maximum number of registers that can be read with one request (FC 3 and 4)
+     */
+    public static final int MAX_REGISTERS = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs that can be read with one request (FC 1 and 2)
+     */
+    public static final int MAX_BITS = 2000;
+
+    private static final StandardToStringStyle TO_STRING_STYLE = new StandardToStringStyle();
+    static {
+        TO_STRING_STYLE.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MergedPollTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final BasicModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    private final Predicate<PollTask> active;
+    private final ModbusReadCallback callback = new FanOutCallback();
+
+    private MergedPollTask(ModbusSlaveEndpoint endpoint, BasicModbusReadRequestBlueprint request, List<PollTask> tasks,
+            Predicate<PollTask> active) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.active = active;
+    }
+
+    /**
+     * Merge poll tasks with overlapping or adjacent ranges
+     *
+     * Tasks that cannot be merged with any other task are returned as is.
+     *
+     * @param tasks tasks to merge
+     * @param maxGap maximum number of unrequested registers or bits between two merged tasks
+     * @return poll tasks covering all the given tasks
+     */
+    public static List<PollTask> merge(Collection<PollTask> tasks, int maxGap) {
+        return merge(tasks, maxGap, task -> true);
+    }
+
+    /**
+     * Merge poll tasks with overlapping or adjacent ranges
+     *
+     * Tasks that cannot be merged with any other task are returned as is.
+     *
+     * @param tasks tasks to merge
+     * @param maxGap maximum number of unrequested registers or bits between two merged tasks
+     * @param active whether a task is still active, only active tasks get the results of the merged tasks
+     * @return poll tasks covering all the given tasks
+     */
+    public static List<PollTask> merge(Collection<PollTask> tasks, int maxGap, Predicate<PollTask> active) {
+        Map<List<Object>, List<PollTask>> groups = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            groups.computeIfAbsent(Arrays.asList(task.getEndpoint(), request.getUnitID(), request.getFunctionCode()),
+                    key -> new ArrayList<>()).add(task);
+        }
+
+        List<PollTask> merged = new ArrayList<>();
+        for (List<PollTask> group : groups.values()) {
+            group.sort(Comparator.comparingInt(task -> task.getRequest().getReference()));
+            int maxLength = maxLength(group.get(0).getRequest().getFunctionCode());
+            List<PollTask> block = new ArrayList<>();
+            int blockStart = 0;
+            int blockEnd = 0;
+            for (PollTask task : group) {
+                int start = task.getRequest().getReference();
+                int end = start + task.getRequest().getDataLength();
+                if (!block.isEmpty() && start <= blockEnd + maxGap
+                        && Math.max(end, blockEnd) - blockStart <= maxLength) {
+                    block.add(task);
+                    blockEnd = Math.max(end, blockEnd);
+                    continue;
+                }
+                if (!block.isEmpty()) {
+                    merged.add(createTask(block, blockStart, blockEnd, active));
+                }
+                block = new ArrayList<>();
+                block.add(task);
+                blockStart = start;
+                blockEnd = end;
+            }
+            if (!block.isEmpty()) {
+                merged.add(createTask(block, blockStart, blockEnd, active));
+            }
+        }
+        return merged;
+    }
+
+    private static int maxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS;
+            default:
+                return MAX_REGISTERS;
+        }
+    }
+
+    private static PollTask createTask(List<PollTask> block, int start, int end, Predicate<PollTask> active) {
+        PollTask first = block.get(0);
+        if (block.size() == 1) {
+            return first;
+        }
+        int maxTries = block.stream().mapToInt(PollTask::getMaxTries).max().orElse(first.getMaxTries());
+        BasicModbusReadRequestBlueprint request = new BasicModbusReadRequestBlueprint(
+                first.getRequest().getUnitID(), first.getRequest().getFunctionCode(), start, end - start, maxTries);
+        return new MergedPollTask(first.getEndpoint(), request, block, active);
+    }
+
+    /**
+     * Get the poll tasks merged into this task
+     *
+     * @return merged poll tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Whether any of the merged tasks is still active
+     *
+     * @return true if the merged request should still be executed
+     */
+    public boolean isActive() {
+        return tasks.stream().anyMatch(active);
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public @Nullable ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, TO_STRING_STYLE).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+    /**
+     * Callback slicing the response of the merged request and passing the slices to the callbacks of the merged
+     * tasks
+     */
+    private class FanOutCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint mergedRequest, ModbusRegisterArray registers) {
+            for (PollTask task : tasks) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                int length = Math.max(0, Math.min(taskRequest.getDataLength(), registers.size() - offset));
+                ModbusRegister[] slice = new ModbusRegister[length];
+                for (int i = 0; i < length; i++) {
+                    slice[i] = registers.getRegister(offset + i);
+                }
+                invoke(task, callback -> callback.onRegisters(taskRequest, new BasicModbusRegisterArray(slice)));
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint mergedRequest, BitArray bits) {
+            for (PollTask task : tasks) {
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                int length = Math.max(0, Math.min(taskRequest.getDataLength(), bits.size() - offset));
+                BasicBitArray slice = new BasicBitArray(length);
+                for (int i = 0; i < length; i++) {
+                    slice.setBit(i, bits.getBit(offset + i));
+                }
+                invoke(task, callback -> callback.onBits(taskRequest, slice));
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint mergedRequest, Exception error) {
+            for (PollTask task : tasks) {
+                invoke(task, callback -> callback.onError(task.getRequest(), error));
+            }
+        }
+
+        private void invoke(PollTask task, Consumer<ModbusReadCallback> invocation) {
+            ModbusReadCallback taskCallback = task.getCallback();
+            if (taskCallback == null || !active.test(task)) {
+                return;
+            }
+            try {
+                invocation.accept(taskCallback);
+            } catch (RuntimeException e) {
+                // one failing callback should not prevent the others from receiving the data
+                logger.error("Callback of merged poll task {} failed: {} {}", task, e.getClass().getName(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(request, endpoint, tasks);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        MergedPollTask rhs = (MergedPollTask) obj;
+        return request.equals(rhs.request) && endpoint.equals(rhs.endpoint) && tasks.equals(rhs.tasks);
+    }
+}
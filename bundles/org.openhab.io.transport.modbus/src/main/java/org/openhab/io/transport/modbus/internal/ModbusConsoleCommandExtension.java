@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusManager;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the Modbus transport
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class ModbusConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_METRICS = "metrics";
+
+    private final ModbusManager manager;
+
+    @Activate
+    public ModbusConsoleCommandExtension(@Reference ModbusManager manager) {
+        super("modbus", "Inspect the Modbus transport.");
+        this.manager = manager;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_METRICS.equals(args[0])) {
+            printMetrics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printMetrics(Console console) {
+        List<ModbusEndpointMetrics> metrics = manager.getEndpointMetrics().values().stream()
+                .sorted(Comparator.comparing(m -> m.getEndpoint().toString())).collect(Collectors.toList());
+        if (metrics.isEmpty()) {
+            console.println("No Modbus operations have been executed.");
+            return;
+        }
+        for (ModbusEndpointMetrics m : metrics) {
+            console.println(m.getEndpoint().toString());
+            console.println(String.format("  operations: %d (failed %d), connection failures: %d", m.getOperations(),
+                    m.getFailedOperations(), m.getConnectionFailures()));
+            console.println(String.format(
+                    "  errors: %d I/O (%d timeouts), %d slave exceptions, %d transaction id mismatches",
+                    m.getIOErrors(), m.getTimeouts(), m.getSlaveErrors(), m.getTransactionIdMismatches()));
+            console.println(String.format("  transaction latency: p50 %s, p95 %s, p99 %s",
+                    formatPercentile(m.getTransactionLatencyHistogram(), 50),
+                    formatPercentile(m.getTransactionLatencyHistogram(), 95),
+                    formatPercentile(m.getTransactionLatencyHistogram(), 99)));
+            console.println(String.format("  operation latency: p50 %s, p95 %s, p99 %s",
+                    formatPercentile(m.getOperationLatencyHistogram(), 50),
+                    formatPercentile(m.getOperationLatencyHistogram(), 95),
+                    formatPercentile(m.getOperationLatencyHistogram(), 99)));
+            console.println(String.format("  connection borrow wait: %d ms total, %d ms max", m.getTotalBorrowMillis(),
+                    m.getMaxBorrowMillis()));
+            console.println(
+                    String.format("  connection return/invalidate: %d ms total, %d ms max; callbacks: %d ms total",
+                            m.getTotalConnectionMillis(), m.getMaxConnectionMillis(), m.getTotalCallbackMillis()));
+            console.println(String.format("  queue: %d waiting, %d ms max lag, %d skipped polls", m.getQueueSize(),
+                    m.getMaxQueueLagMillis(), m.getSkippedPolls()));
+        }
+    }
+
+    private static String formatPercentile(long[] histogram, double percentile) {
+        if (Arrays.stream(histogram).sum() == 0) {
+            return "-";
+        }
+        long millis = ModbusEndpointMetrics.percentileMillis(histogram, percentile);
+        if (millis < 0) {
+            long[] bounds = ModbusEndpointMetrics.LATENCY_BUCKETS_MILLIS;
+            return String.format(">%d ms", bounds[bounds.length - 1]);
+        }
+        return String.format("<=%d ms", millis);
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_METRICS, "show transport metrics of all endpoints"));
+    }
+}
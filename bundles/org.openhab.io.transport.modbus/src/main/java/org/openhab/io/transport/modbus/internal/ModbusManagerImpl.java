@@ -14,6 +14,9 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,6 +28,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.imageio.IIOException;
 
@@ -37,6 +41,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
@@ -77,6 +82,9 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * TCP endpoints configured with {@link EndpointPoolConfiguration#getMaxPipelinedTransactions()} above one share the
+ * pooled connection between several concurrent operations, see {@link ModbusTCPPipeline}.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -134,6 +142,31 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Execute a single transaction, pipelined when the connection is shared by a {@link ModbusTCPPipeline}
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param endpoint endpoint of the connection
+     * @param connection connection to use
+     * @param libRequest request to send
+     * @return response to the request
+     * @throws ModbusException on IO errors and slave exception responses
+     */
+    private ModbusResponse executeTransaction(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint,
+            ModbusSlaveConnection connection, ModbusRequest libRequest) throws ModbusException {
+        ModbusTCPPipeline pipeline = pipelines.get(endpoint);
+        if (pipeline != null && pipeline.isShared(connection)) {
+            AtomicReference<@Nullable ModbusResponse> response = new AtomicReference<>();
+            timer.transaction.timeRunnableWithModbusException(
+                    () -> response.set(pipeline.execute(connection, libRequest)));
+            return Objects.requireNonNull(response.get());
+        }
+        ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
+        transaction.setRequest(libRequest);
+        timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
+        return transaction.getResponse();
+    }
+
     /**
      * Implementation for the PollTask operation
      *
@@ -149,16 +182,13 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusReadCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, task, operationId);
@@ -184,17 +214,14 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusWriteCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
 
@@ -249,6 +276,17 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Configuration parameter to enable merging of regular polls with the same poll period, see
+     * {@link MergedPollTask}
+     */
+    private static final String CONFIG_MERGE_POLLS = "mergePolls";
+    /**
+     * Configuration parameter for the maximum number of registers or bits not requested by any poll task, which may be
+     * read additionally when merging polls
+     */
+    private static final String CONFIG_MERGE_MAX_GAP = "mergeMaxGap";
+
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
@@ -268,6 +306,24 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Poll periods of the registered regular polls, used for merging polls
+     */
+    private final Map<PollTask, Long> pollPeriods = new ConcurrentHashMap<>();
+    /**
+     * Serialized task queues per endpoint. All operations are executed through these queues
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointQueue> endpointQueues = new ConcurrentHashMap<>();
+    /**
+     * Transport metrics per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointMetricsRecorder> endpointMetrics = new ConcurrentHashMap<>();
+    /**
+     * Shared connections of the TCP endpoints with pipelined transactions
+     */
+    private final Map<ModbusSlaveEndpoint, ModbusTCPPipeline> pipelines = new ConcurrentHashMap<>();
+    private volatile boolean mergePolls;
+    private volatile int mergeMaxGap;
     /**
      * Executor for requests
      */
@@ -355,6 +411,9 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void invalidate(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
+        if (releaseSharedConnection(endpoint, connection, true)) {
+            return;
+        }
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return;
@@ -373,6 +432,9 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void returnConnection(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
+        if (releaseSharedConnection(endpoint, connection, false)) {
+            return;
+        }
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return;
@@ -390,6 +452,47 @@ public class ModbusManagerImpl implements ModbusManager {
         logger.trace("returning connection for endpoint {} took {} ms", endpoint, System.currentTimeMillis() - start);
     }
 
+    /**
+     * Release a connection shared by a {@link ModbusTCPPipeline}
+     *
+     * The last user of the shared connection returns it to the pool, or invalidates it in case any of the users
+     * invalidated it.
+     *
+     * @return whether the connection was shared, false if it should be returned to the pool as usual
+     */
+    private boolean releaseSharedConnection(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection,
+            boolean invalidate) {
+        ModbusTCPPipeline pipeline = pipelines.get(endpoint);
+        if (pipeline == null || !connection.isPresent() || !pipeline.isShared(connection.get())) {
+            return false;
+        }
+        pipeline.release(connection.get(), invalidate, con -> returnConnection(endpoint, Optional.of(con)),
+                con -> invalidate(endpoint, Optional.of(con)));
+        return true;
+    }
+
+    /**
+     * Get the pipeline of the endpoint, in case pipelined transactions are configured for it
+     */
+    private @Nullable ModbusTCPPipeline getPipeline(ModbusSlaveEndpoint endpoint) {
+        if (getMaxConcurrency(endpoint) <= 1) {
+            return null;
+        }
+        return pipelines.computeIfAbsent(endpoint, ModbusTCPPipeline::new);
+    }
+
+    /**
+     * Get the number of operations that may be executed concurrently with the endpoint
+     */
+    private int getMaxConcurrency(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (!(endpoint instanceof ModbusTCPSlaveEndpoint) || connectionFactory == null) {
+            return 1;
+        }
+        EndpointPoolConfiguration config = connectionFactory.getEndpointPoolConfiguration(endpoint);
+        return config == null ? 1 : Math.max(1, config.getMaxPipelinedTransactions());
+    }
+
     /**
      * Establishes connection to the endpoint specified by the task
      *
@@ -418,7 +521,10 @@ public class ModbusManagerImpl implements ModbusManager {
         ModbusSlaveEndpoint endpoint = task.getEndpoint();
 
         ModbusRequestBlueprint request = task.getRequest();
-        Optional<ModbusSlaveConnection> connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
+        ModbusTCPPipeline pipeline = getPipeline(endpoint);
+        Optional<ModbusSlaveConnection> connection = timer.borrow
+                .timeSupplier(() -> pipeline == null ? borrowConnection(endpoint)
+                        : pipeline.acquire(() -> borrowConnection(endpoint)));
         logger.trace("Executing task {} (oneOff={})! Connection received in {} ms [operation ID {}]", task, oneOffTask,
                 System.currentTimeMillis() - connectionBorrowStart, operationId);
         if (scheduledThreadPoolExecutor == null) {
@@ -427,6 +533,7 @@ public class ModbusManagerImpl implements ModbusManager {
             return Optional.empty();
         }
         if (!connection.isPresent()) {
+            getMetricsRecorder(endpoint).connectionFailed();
             logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
                     operationId);
             if (callback != null) {
@@ -468,7 +575,9 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        boolean registered = task instanceof MergedPollTask ? ((MergedPollTask) task).isActive()
+                : scheduledPollTasks.containsKey(task);
+        if (!registered) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -505,6 +614,9 @@ public class ModbusManagerImpl implements ModbusManager {
         logTaskQueueInfo();
         R request = task.getRequest();
         ModbusSlaveEndpoint endpoint = task.getEndpoint();
+        EndpointMetricsRecorder metrics = getMetricsRecorder(endpoint);
+        boolean succeeded = false;
+        boolean aborted = false;
         @Nullable
         C callback = task.getCallback();
         int maxTries = task.getMaxTries();
@@ -574,8 +686,10 @@ public class ModbusManagerImpl implements ModbusManager {
                     willRetry = tryIndex < maxTries;
                     operation.accept(timer, task, connection.get());
                     lastError.set(null);
+                    succeeded = true;
                     break;
                 } catch (IOException e) {
+                    metrics.ioError(e);
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
@@ -593,6 +707,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     connection = Optional.empty();
                     continue;
                 } catch (ModbusIOException e) {
+                    metrics.ioError(e);
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
@@ -610,6 +725,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     connection = Optional.empty();
                     continue;
                 } catch (ModbusSlaveException e) {
+                    metrics.slaveError();
                     lastError.set(new ModbusSlaveErrorResponseExceptionImpl(e));
                     // Slave returned explicit error response, no reason to re-establish new connection
                     if (willRetry) {
@@ -623,6 +739,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     }
                     continue;
                 } catch (ModbusUnexpectedTransactionIdException e) {
+                    metrics.transactionIdMismatch();
                     lastError.set(e);
                     // transaction error details already logged
                     if (willRetry) {
@@ -673,6 +790,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
         } catch (PollTaskUnregistered e) {
+            aborted = true;
             logger.warn("Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
                     e.getMessage(), operationId);
             return;
@@ -686,22 +804,46 @@ public class ModbusManagerImpl implements ModbusManager {
             timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
+            if (!aborted) {
+                metrics.operationFinished(timer, !succeeded);
+            }
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
         }
     }
 
+    private EndpointMetricsRecorder getMetricsRecorder(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, EndpointMetricsRecorder::new);
+    }
+
+    @Override
+    public Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> getEndpointMetrics() {
+        Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> metrics = new HashMap<>();
+        endpointMetrics.forEach(
+                (endpoint, recorder) -> metrics.put(endpoint, recorder.snapshot(endpointQueues.get(endpoint))));
+        return metrics;
+    }
+
+    private EndpointQueue getEndpointQueue(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint) {
+        return endpointQueues.computeIfAbsent(endpoint, key -> {
+            EndpointQueue queue = new EndpointQueue(key, executor);
+            queue.setMaxConcurrency(getMaxConcurrency(key));
+            return queue;
+        });
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> future = getEndpointQueue(executor, task.getEndpoint())
+                .submit(EndpointQueue.Priority.ONE_OFF_POLL, () -> {
+                    long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
+                    logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
+                            millisInThreadPoolWaiting);
+                    executeOperation(task, true, pollOperation);
+                });
         return future;
     }
 
@@ -716,23 +858,83 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
-
-            scheduledPollTasks.put(task, future);
+            if (mergePolls) {
+                pollPeriods.put(task, pollPeriodMillis);
+                rescheduleMergedPolls(executor, task.getEndpoint(), pollPeriodMillis, initialDelayMillis);
+            } else {
+                scheduledPollTasks.put(task, schedulePoll(executor, task, pollPeriodMillis, initialDelayMillis));
+            }
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
         }
     }
 
+    private ScheduledFuture<?> schedulePoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        EndpointQueue queue = getEndpointQueue(executor, task.getEndpoint());
+        // the scheduler only queues the poll, the poll itself is executed by the queue of the endpoint
+        return executor.scheduleWithFixedDelay(() -> queue.submitRegularPoll(task, () -> {
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
+                    started);
+            executeOperation(task, false, pollOperation);
+            long finished = System.currentTimeMillis();
+            logger.debug(
+                    "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    pollPeriodMillis, task, finished, started, finished - started);
+        }), initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reschedule the regular polls of an endpoint with the given poll period, merging polls with overlapping or
+     * adjacent ranges.
+     *
+     * Polls of other endpoints are not touched. A rescheduled poll keeps the phase of the polls it replaces, i.e. it
+     * runs next when the earliest of them would have run. Only polls without a previous schedule use the given initial
+     * delay.
+     *
+     * An execution of a replaced merged poll which is already queued is not discarded: it is still executed as long as
+     * any of its polls is registered, and passes the results to the registered polls only.
+     *
+     * Must be called while holding the lock of this instance.
+     *
+     * @param executor executor to use
+     * @param endpoint endpoint of the polls to reschedule
+     * @param pollPeriodMillis poll period of the polls to reschedule
+     * @param initialDelayMillis initial delay for polls which have not been scheduled before
+     */
+    private void rescheduleMergedPolls(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint,
+            long pollPeriodMillis, long initialDelayMillis) {
+        List<PollTask> tasks = pollPeriods.entrySet().stream()
+                .filter(e -> e.getValue() == pollPeriodMillis && e.getKey().getEndpoint().equals(endpoint))
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+
+        // cancel the previously scheduled polls of this endpoint and period. Ongoing polls are not interrupted since
+        // they serve other tasks as well
+        Map<PollTask, ScheduledFuture<?>> previousFutures = new HashMap<>();
+        tasks.forEach(task -> Optional.ofNullable(scheduledPollTasks.get(task))
+                .ifPresent(future -> previousFutures.put(task, future)));
+        previousFutures.values().forEach(future -> future.cancel(false));
+
+        for (PollTask task : MergedPollTask.merge(tasks, mergeMaxGap, this::isRegistered)) {
+            List<PollTask> mergedTasks = task instanceof MergedPollTask ? ((MergedPollTask) task).getTasks()
+                    : Collections.singletonList(task);
+            // a negative delay means the previous poll is running right now, its next run is one period later
+            long delayMillis = mergedTasks.stream().map(previousFutures::get).filter(Objects::nonNull)
+                    .mapToLong(future -> future.getDelay(TimeUnit.MILLISECONDS))
+                    .map(delay -> delay < 0 ? pollPeriodMillis : delay).min().orElse(initialDelayMillis);
+            ScheduledFuture<?> future = schedulePoll(executor, task, pollPeriodMillis, delayMillis);
+            if (task instanceof MergedPollTask) {
+                logger.debug("Merged {} poll tasks into {}", mergedTasks.size(), task);
+            }
+            mergedTasks.forEach(merged -> scheduledPollTasks.put(merged, future));
+        }
+    }
+
+    private boolean isRegistered(PollTask task) {
+        return scheduledPollTasks.containsKey(task);
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -756,7 +958,15 @@ public class ModbusManagerImpl implements ModbusManager {
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            Long pollPeriodMillis = pollPeriods.remove(task);
+            if (pollPeriodMillis != null) {
+                // the poll might be merged with other polls, reschedule the remaining polls of the same period
+                rescheduleMergedPolls(executor, task.getEndpoint(), pollPeriodMillis, pollPeriodMillis);
+            }
+            // a merged poll shared with other tasks has been cancelled by the rescheduling already
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -781,12 +991,13 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> future = getEndpointQueue(scheduledThreadPoolExecutor, task.getEndpoint())
+                .submit(EndpointQueue.Priority.WRITE, () -> {
+                    long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
+                    logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
+                            millisInThreadPoolWaiting);
+                    executeOperation(task, true, writeOperation);
+                });
         return future;
     }
 
@@ -795,6 +1006,10 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        EndpointQueue queue = endpointQueues.get(endpoint);
+        if (queue != null) {
+            queue.setMaxConcurrency(getMaxConcurrency(endpoint));
+        }
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
@@ -825,6 +1040,14 @@ public class ModbusManagerImpl implements ModbusManager {
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            mergePolls = Boolean.parseBoolean(String.valueOf(configProperties.get(CONFIG_MERGE_POLLS)));
+            Object mergeMaxGapConfig = configProperties.get(CONFIG_MERGE_MAX_GAP);
+            try {
+                mergeMaxGap = mergeMaxGapConfig == null ? 0 : Integer.parseInt(mergeMaxGapConfig.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}', using 0", CONFIG_MERGE_MAX_GAP, mergeMaxGapConfig);
+                mergeMaxGap = 0;
+            }
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -855,6 +1078,9 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            endpointQueues.values().forEach(EndpointQueue::clear);
+            endpointQueues.clear();
+            pipelines.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -887,6 +1113,14 @@ public class ModbusManagerImpl implements ModbusManager {
                         task.getRequest().getDataLength(), future.isDone(), future.isCancelled(),
                         future.getDelay(TimeUnit.MILLISECONDS), task);
             });
+            endpointQueues.values().forEach(queue -> {
+                pollMonitorLogger.trace("POLL MONITOR: {}", queue);
+                if (queue.getQueueSize() >= WARN_QUEUE_SIZE) {
+                    pollMonitorLogger.warn(
+                            "Many ({}) tasks queued for endpoint {}, tasks wait up to {} ms! This might be sign of too short poll periods or a slow slave.",
+                            queue.getQueueSize(), queue.getEndpoint(), queue.getMaxLagMillis());
+                }
+            });
             if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
                 ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
                 pollMonitorLogger.trace(
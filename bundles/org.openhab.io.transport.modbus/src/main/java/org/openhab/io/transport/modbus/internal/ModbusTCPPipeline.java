@@ -0,0 +1,341 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.Modbus;
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * Pipelined transactions over a single Modbus TCP connection
+ *
+ * All operations of the endpoint share one connection borrowed from the pool. Each transaction writes its request
+ * without waiting for the responses of the other transactions in flight. Responses are matched to the requests by
+ * transaction ID: whichever thread reads a response hands it to the transaction waiting for it. Responses with an
+ * unknown transaction ID, e.g. late responses of transactions that have timed out, are discarded.
+ *
+ * The connection is returned to the pool once the last transaction using it has finished. An I/O error fails all
+ * transactions in flight, and the connection is invalidated once all of them have released it. A read timeout only
+ * fails the transactions which have passed their deadline, the others keep waiting for their responses.
+ *
+ * The number of transactions in flight is limited by the number of operations the {@link EndpointQueue} of the
+ * endpoint executes concurrently.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusTCPPipeline {
+
+    private static final int MAX_TRANSACTION_ID = 0xFFFF;
+    /**
+     * A failed read which blocked for at least this fraction of the socket timeout is considered a read timeout
+     */
+    private static final double READ_TIMEOUT_RATIO = 0.9;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusTCPPipeline.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ReentrantLock readLock = new ReentrantLock();
+    private final Object writeLock = new Object();
+
+    /**
+     * Transactions waiting for their response, by transaction ID. Guarded by the lock of this instance
+     */
+    private final Map<Integer, Transaction> pending = new HashMap<>();
+    private int lastTransactionId;
+
+    /**
+     * Connection shared by the current users, guarded by the lock of this instance
+     */
+    private @Nullable ModbusSlaveConnection connection;
+    private int users;
+    private boolean broken;
+    private boolean connecting;
+
+    public ModbusTCPPipeline(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Get the shared connection, borrowing it from the pool if no other transaction is using it
+     *
+     * When the shared connection is broken, waits until all its users have released it. The connection is borrowed
+     * without holding the lock of this instance, other threads acquiring the connection meanwhile wait for the result.
+     *
+     * @param borrow function to borrow a connection from the pool
+     * @return the shared connection, or empty when no connection could be borrowed or the thread was interrupted
+     */
+    public Optional<ModbusSlaveConnection> acquire(Supplier<Optional<ModbusSlaveConnection>> borrow) {
+        synchronized (this) {
+            try {
+                while (broken || connecting) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            ModbusSlaveConnection current = connection;
+            if (current != null) {
+                users++;
+                return Optional.of(current);
+            }
+            connecting = true;
+        }
+
+        Optional<ModbusSlaveConnection> borrowed = Optional.empty();
+        try {
+            borrowed = borrow.get();
+        } finally {
+            synchronized (this) {
+                connecting = false;
+                if (borrowed.isPresent()) {
+                    connection = borrowed.get();
+                    users++;
+                }
+                notifyAll();
+            }
+        }
+        return borrowed;
+    }
+
+    /**
+     * Check whether the given connection is the shared connection of this pipeline
+     *
+     * @param candidate connection to check
+     * @return whether the connection has been acquired from this pipeline
+     */
+    public synchronized boolean isShared(ModbusSlaveConnection candidate) {
+        return connection == candidate;
+    }
+
+    /**
+     * Release the shared connection
+     *
+     * @param released connection acquired from this pipeline
+     * @param invalidate whether the connection should not be used anymore
+     * @param returnToPool function returning the connection to the pool, called by the last user
+     * @param invalidateInPool function invalidating the connection in the pool, called by the last user
+     */
+    public synchronized void release(ModbusSlaveConnection released, boolean invalidate,
+            Consumer<ModbusSlaveConnection> returnToPool, Consumer<ModbusSlaveConnection> invalidateInPool) {
+        if (connection != released || users <= 0) {
+            logger.warn("Releasing connection {} of endpoint {} which is not shared by the pipeline", released,
+                    endpoint);
+            return;
+        }
+        broken |= invalidate;
+        if (--users > 0) {
+            return;
+        }
+        connection = null;
+        if (broken) {
+            invalidateInPool.accept(released);
+        } else {
+            returnToPool.accept(released);
+        }
+        broken = false;
+        notifyAll();
+    }
+
+    /**
+     * Execute a transaction over the shared connection
+     *
+     * @param sharedConnection connection acquired from this pipeline
+     * @param request request to send, its transaction ID is assigned by this method
+     * @return response to the request
+     * @throws ModbusIOException on I/O errors or when no response is received in time
+     * @throws ModbusSlaveException when the slave answers with an exception response
+     */
+    public ModbusResponse execute(ModbusSlaveConnection sharedConnection, ModbusRequest request)
+            throws ModbusException {
+        TCPMasterConnection tcpConnection = (TCPMasterConnection) sharedConnection;
+        ModbusTransport transport = tcpConnection.getModbusTransport();
+        int timeoutMillis = tcpConnection.getTimeout() > 0 ? tcpConnection.getTimeout() : Modbus.DEFAULT_TIMEOUT;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+        int transactionId;
+        synchronized (this) {
+            if (broken) {
+                throw new ModbusIOException("Connection has been broken by another transaction");
+            }
+            transactionId = nextTransactionId();
+            pending.put(transactionId, new Transaction(future, deadline));
+        }
+        request.setTransactionID(transactionId);
+
+        try {
+            synchronized (writeLock) {
+                transport.writeMessage(request);
+            }
+        } catch (ModbusIOException e) {
+            failAll(e);
+            throw e;
+        }
+
+        while (!future.isDone()) {
+            readLock.lock();
+            try {
+                // another thread might have read our response while we were waiting for the lock
+                if (future.isDone()) {
+                    break;
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    synchronized (this) {
+                        pending.remove(transactionId);
+                    }
+                    throw new ModbusIOException(String.format(
+                            "Timed out waiting for response with transaction ID %d from endpoint %s", transactionId,
+                            endpoint));
+                }
+                readResponse(transport, timeoutMillis);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        ModbusResponse response = getResponse(future);
+        if (response instanceof ExceptionResponse) {
+            throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+        }
+        return response;
+    }
+
+    /**
+     * Read one response and hand it to the transaction waiting for it
+     *
+     * The library does not report read timeouts separately, a failed read which blocked for about the socket timeout
+     * is taken as one. In that case no response has been received and only the transactions past their deadline fail.
+     * Any other I/O error fails all transactions in flight.
+     *
+     * Must be called while holding the read lock.
+     */
+    private void readResponse(ModbusTransport transport, int timeoutMillis) throws ModbusIOException {
+        ModbusResponse response;
+        long started = System.nanoTime();
+        try {
+            response = transport.readResponse();
+        } catch (ModbusIOException e) {
+            long blockedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            if (!e.isEOF() && blockedMillis >= timeoutMillis * READ_TIMEOUT_RATIO) {
+                expireOverdue();
+                return;
+            }
+            failAll(e);
+            throw e;
+        }
+        Transaction waiting;
+        synchronized (this) {
+            waiting = pending.remove(response.getTransactionID());
+        }
+        if (waiting == null) {
+            logger.warn("Discarding response with unexpected transaction ID {} from endpoint {}",
+                    response.getTransactionID(), endpoint);
+            return;
+        }
+        waiting.response.complete(response);
+    }
+
+    private synchronized void failAll(ModbusIOException error) {
+        broken = true;
+        pending.values().forEach(transaction -> transaction.response.completeExceptionally(error));
+        pending.clear();
+    }
+
+    private synchronized void expireOverdue() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Integer, Transaction>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Transaction> entry = iterator.next();
+            if (entry.getValue().deadline <= now) {
+                iterator.remove();
+                entry.getValue().response.completeExceptionally(new ModbusIOException(String.format(
+                        "Timed out waiting for response with transaction ID %d from endpoint %s", entry.getKey(),
+                        endpoint)));
+            }
+        }
+    }
+
+    private ModbusResponse getResponse(CompletableFuture<ModbusResponse> future) throws ModbusException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusException) {
+                throw (ModbusException) cause;
+            }
+            throw new ModbusIOException(String.valueOf(cause));
+        } catch (InterruptedException e) {
+            // the future is already completed, cannot happen
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted");
+        }
+    }
+
+    /**
+     * Must be called while holding the lock of this instance
+     */
+    private int nextTransactionId() {
+        do {
+            lastTransactionId = lastTransactionId >= MAX_TRANSACTION_ID ? 1 : lastTransactionId + 1;
+        } while (pending.containsKey(lastTransactionId));
+        return lastTransactionId;
+    }
+
+    /**
+     * @return number of transactions waiting for their response
+     */
+    public synchronized int getTransactionsInFlight() {
+        return pending.size();
+    }
+
+    private static class Transaction {
+        private final CompletableFuture<ModbusResponse> response;
+        private final long deadline;
+
+        private Transaction(CompletableFuture<ModbusResponse> response, long deadline) {
+            this.response = response;
+            this.deadline = deadline;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ModbusTCPPipeline(endpoint=%s, users=%d, inFlight=%d, broken=%s)", endpoint, users,
+                pending.size(), broken);
+    }
+}
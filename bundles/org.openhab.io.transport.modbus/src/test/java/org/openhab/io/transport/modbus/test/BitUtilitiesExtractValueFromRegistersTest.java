@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.openhab.io.transport.modbus.BasicModbusRegister;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Compare the allocation free readers of {@link ModbusBitUtilities} against straightforward decoding of the register
+ * bytes, with all value types and a variety of register contents
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@RunWith(Parameterized.class)
+public class BitUtilitiesExtractValueFromRegistersTest {
+
+    private static final int REGISTER_COUNT = 5;
+
+    private final ValueType type;
+    private final int[] words;
+
+    public BitUtilitiesExtractValueFromRegistersTest(ValueType type, int[] words) {
+        this.type = type;
+        this.words = words;
+    }
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        List<int[]> contents = new ArrayList<>();
+        int[] specials = { 0x0000, 0x0001, 0x007F, 0x0080, 0x00FF, 0x7FFF, 0x8000, 0x8001, 0xFFFF, 0x7F80, 0xFF80,
+                0x7FC0 };
+        for (int special : specials) {
+            int[] registers = new int[REGISTER_COUNT];
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                registers[i] = i % 2 == 0 ? special : 0;
+            }
+            contents.add(registers);
+            int[] filled = new int[REGISTER_COUNT];
+            Arrays.fill(filled, special);
+            contents.add(filled);
+        }
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int[] registers = new int[REGISTER_COUNT];
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                registers[i] = random.nextInt(0x10000);
+            }
+            contents.add(registers);
+        }
+
+        List<Object[]> data = new ArrayList<>();
+        for (ValueType type : ValueType.values()) {
+            for (int[] registers : contents) {
+                data.add(new Object[] { type, registers });
+            }
+        }
+        return data;
+    }
+
+    private ModbusRegisterArray registers() {
+        ModbusRegister[] registers = new ModbusRegister[words.length];
+        for (int i = 0; i < words.length; i++) {
+            registers[i] = new BasicModbusRegister((byte) (words[i] >> 8), (byte) words[i]);
+        }
+        return new BasicModbusRegisterArray(registers);
+    }
+
+    private int itemCount() {
+        return type.getBits() >= 16 ? words.length - type.getBits() / 16 + 1 : words.length * 16 / type.getBits();
+    }
+
+    /**
+     * Value bytes in big endian order, registers in the order of significance
+     */
+    private byte[] valueBytes(int index) {
+        int registerCount = type.getBits() / 16;
+        boolean swap = type.getConfigValue().endsWith("_swap");
+        ByteBuffer buffer = ByteBuffer.allocate(registerCount * 2);
+        for (int i = 0; i < registerCount; i++) {
+            buffer.putShort((short) words[swap ? index + registerCount - 1 - i : index + i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reference decoding of the item, null with NaN and infinity
+     */
+    private BigDecimal expected(int index) {
+        switch (type) {
+            case BIT:
+                return BigDecimal.valueOf((words[index / 16] >> (index % 16)) & 1);
+            case INT8:
+                return BigDecimal.valueOf((byte) (words[index / 2] >> (8 * (index % 2))));
+            case UINT8:
+                return BigDecimal.valueOf((words[index / 2] >> (8 * (index % 2))) & 0xff);
+            case INT16:
+                return BigDecimal.valueOf(ByteBuffer.wrap(valueBytes(index)).getShort());
+            case INT32:
+            case INT32_SWAP:
+                return BigDecimal.valueOf(ByteBuffer.wrap(valueBytes(index)).getInt());
+            case INT64:
+            case INT64_SWAP:
+                return BigDecimal.valueOf(ByteBuffer.wrap(valueBytes(index)).getLong());
+            case FLOAT32:
+            case FLOAT32_SWAP: {
+                float value = ByteBuffer.wrap(valueBytes(index)).getFloat();
+                return Float.isNaN(value) || Float.isInfinite(value) ? null : new BigDecimal(value);
+            }
+            default:
+                // unsigned types
+                return new BigDecimal(new BigInteger(1, valueBytes(index)));
+        }
+    }
+
+    @Test
+    public void testExtractState() {
+        ModbusRegisterArray registers = registers();
+        for (int index = 0; index < itemCount(); index++) {
+            BigDecimal expected = expected(index);
+            Optional<DecimalType> actual = ModbusBitUtilities.extractStateFromRegisters(registers, index, type);
+            if (expected == null) {
+                assertFalse(actual.isPresent());
+            } else if (type == ValueType.FLOAT32 || type == ValueType.FLOAT32_SWAP) {
+                assertThat(String.format("%s at index %d", type, index), actual.get().floatValue(),
+                        is(equalTo(expected.floatValue())));
+            } else {
+                assertThat(String.format("%s at index %d", type, index), actual.get().toBigDecimal().compareTo(expected),
+                        is(equalTo(0)));
+            }
+        }
+    }
+
+    @Test
+    public void testExtractLong() {
+        if (type == ValueType.FLOAT32 || type == ValueType.FLOAT32_SWAP) {
+            return;
+        }
+        ModbusRegisterArray registers = registers();
+        for (int index = 0; index < itemCount(); index++) {
+            long actual = ModbusBitUtilities.extractLongFromRegisters(registers, index, type);
+            // with UINT64, values above Long.MAX_VALUE are returned in two's complement
+            assertThat(String.format("%s at index %d", type, index), actual,
+                    is(equalTo(expected(index).toBigInteger().longValue())));
+        }
+    }
+
+    @Test
+    public void testExtractDouble() {
+        ModbusRegisterArray registers = registers();
+        for (int index = 0; index < itemCount(); index++) {
+            BigDecimal expected = expected(index);
+            double actual = ModbusBitUtilities.extractDoubleFromRegisters(registers, index, type);
+            if (expected == null) {
+                assertTrue(Double.isNaN(actual) || Double.isInfinite(actual));
+            } else {
+                assertThat(String.format("%s at index %d", type, index), actual,
+                        is(equalTo(expected.doubleValue())));
+            }
+        }
+    }
+
+    @Test
+    public void testRawValueEqualityMatchesValueEquality() {
+        ModbusRegisterArray registers = registers();
+        for (int first = 0; first < itemCount(); first++) {
+            for (int second = 0; second < itemCount(); second++) {
+                boolean rawEqual = ModbusBitUtilities.extractRawValueFromRegisters(registers, first,
+                        type) == ModbusBitUtilities.extractRawValueFromRegisters(registers, second, type);
+                boolean bytesEqual = type.getBits() >= 16
+                        ? Arrays.equals(valueBytes(first), valueBytes(second))
+                        : expected(first).equals(expected(second));
+                assertThat(rawEqual, is(equalTo(bytesEqual)));
+            }
+        }
+    }
+}
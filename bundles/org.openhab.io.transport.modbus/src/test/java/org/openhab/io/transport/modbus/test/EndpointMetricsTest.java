@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.AggregateStopWatch;
+import org.openhab.io.transport.modbus.internal.EndpointMetricsRecorder;
+
+import net.wimpi.modbus.ModbusIOException;
+
+/**
+ * @author openHAB Contributors - Initial contribution
+ */
+public class EndpointMetricsTest {
+
+    private final EndpointMetricsRecorder recorder = new EndpointMetricsRecorder(
+            new ModbusTCPSlaveEndpoint("127.0.0.1", 502));
+
+    @Test
+    public void testErrorsAreCounted() {
+        recorder.ioError(new IOException("connection reset"));
+        recorder.ioError(new SocketTimeoutException());
+        recorder.ioError(new ModbusIOException("Read timed out"));
+        recorder.slaveError();
+        recorder.transactionIdMismatch();
+        recorder.connectionFailed();
+
+        ModbusEndpointMetrics metrics = recorder.snapshot(null);
+        assertThat(metrics.getIOErrors(), is(equalTo(3L)));
+        assertThat(metrics.getTimeouts(), is(equalTo(2L)));
+        assertThat(metrics.getSlaveErrors(), is(equalTo(1L)));
+        assertThat(metrics.getTransactionIdMismatches(), is(equalTo(1L)));
+        assertThat(metrics.getConnectionFailures(), is(equalTo(1L)));
+        assertThat(metrics.getQueueSize(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testOperationsAreCounted() {
+        AggregateStopWatch timer = new AggregateStopWatch();
+        timer.suspendAllRunning();
+        recorder.operationFinished(timer, false);
+        recorder.operationFinished(timer, true);
+
+        ModbusEndpointMetrics metrics = recorder.snapshot(null);
+        assertThat(metrics.getOperations(), is(equalTo(2L)));
+        assertThat(metrics.getFailedOperations(), is(equalTo(1L)));
+        // nothing was timed, so all operations end up in the first bucket
+        assertThat(metrics.getOperationLatencyHistogram()[0], is(equalTo(2L)));
+        assertThat(metrics.getTransactionLatencyHistogram()[0], is(equalTo(2L)));
+        assertThat(metrics.getTotalBorrowMillis(), is(equalTo(0L)));
+        assertThat(metrics.getMaxBorrowMillis(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterOperations() {
+        ModbusEndpointMetrics before = recorder.snapshot(null);
+        AggregateStopWatch timer = new AggregateStopWatch();
+        timer.suspendAllRunning();
+        recorder.operationFinished(timer, false);
+
+        assertThat(before.getOperations(), is(equalTo(0L)));
+        assertThat(before.getOperationLatencyHistogram()[0], is(equalTo(0L)));
+    }
+
+    @Test
+    public void testPercentile() {
+        // buckets: <=10, <=25, <=50, <=100, <=250, <=500, <=1000, <=2500, <=5000, >5000
+        long[] histogram = { 50, 40, 0, 9, 0, 0, 0, 0, 0, 1 };
+        assertThat(ModbusEndpointMetrics.percentileMillis(histogram, 50), is(equalTo(10L)));
+        assertThat(ModbusEndpointMetrics.percentileMillis(histogram, 90), is(equalTo(25L)));
+        assertThat(ModbusEndpointMetrics.percentileMillis(histogram, 99), is(equalTo(100L)));
+        assertThat(ModbusEndpointMetrics.percentileMillis(histogram, 100), is(equalTo(-1L)));
+        assertThat(ModbusEndpointMetrics.percentileMillis(new long[histogram.length], 50), is(equalTo(-1L)));
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointQueue;
+import org.openhab.io.transport.modbus.internal.EndpointQueue.Priority;
+
+/**
+ * @author openHAB Contributors - Initial contribution
+ */
+public class EndpointQueueTest {
+
+    private final List<Runnable> executorTasks = new ArrayList<>();
+    private final EndpointQueue queue = new EndpointQueue(new ModbusTCPSlaveEndpoint("127.0.0.1", 502),
+            executorTasks::add);
+
+    private void runExecutor() {
+        while (!executorTasks.isEmpty()) {
+            executorTasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void testTasksAreExecutedInPriorityOrder() {
+        List<String> executed = new ArrayList<>();
+        queue.submitRegularPoll("poll1", () -> executed.add("poll1"));
+        queue.submit(Priority.ONE_OFF_POLL, () -> executed.add("oneOff"));
+        queue.submitRegularPoll("poll2", () -> executed.add("poll2"));
+        queue.submit(Priority.WRITE, () -> executed.add("write"));
+
+        assertThat(queue.getQueueSize(), is(equalTo(4)));
+        // only one drain is running at a time
+        assertThat(executorTasks.size(), is(equalTo(1)));
+
+        runExecutor();
+        assertThat(executed, is(equalTo(Arrays.asList("write", "oneOff", "poll1", "poll2"))));
+        assertThat(queue.getQueueSize(), is(equalTo(0)));
+        assertThat(queue.getExecutedTasks(), is(equalTo(4L)));
+    }
+
+    @Test
+    public void testQueuedRegularPollIsNotQueuedTwice() {
+        List<String> executed = new ArrayList<>();
+        assertThat(queue.submitRegularPoll("poll", () -> executed.add("poll")), is(true));
+        assertThat(queue.submitRegularPoll("poll", () -> executed.add("poll")), is(false));
+        assertThat(queue.getSkippedPolls(), is(equalTo(1L)));
+
+        runExecutor();
+        assertThat(executed, is(equalTo(Arrays.asList("poll"))));
+
+        // after execution, the poll can be queued again
+        assertThat(queue.submitRegularPoll("poll", () -> executed.add("poll")), is(true));
+    }
+
+    @Test
+    public void testCanceledTaskIsNotExecuted() {
+        List<String> executed = new ArrayList<>();
+        ScheduledFuture<?> future = queue.submit(Priority.WRITE, () -> executed.add("write"));
+        future.cancel(false);
+        assertThat(queue.getQueueSize(), is(equalTo(0)));
+
+        runExecutor();
+        assertThat(executed.isEmpty(), is(true));
+        assertThat(future.isCancelled(), is(true));
+    }
+
+    @Test
+    public void testConcurrentDrainers() {
+        queue.setMaxConcurrency(2);
+        List<String> executed = new ArrayList<>();
+        queue.submit(Priority.REGULAR_POLL, () -> executed.add("poll1"));
+        queue.submit(Priority.REGULAR_POLL, () -> executed.add("poll2"));
+        queue.submit(Priority.REGULAR_POLL, () -> executed.add("poll3"));
+
+        // at most two tasks are executed at the same time
+        assertThat(executorTasks.size(), is(equalTo(2)));
+
+        runExecutor();
+        assertThat(executed, is(equalTo(Arrays.asList("poll1", "poll2", "poll3"))));
+        assertThat(queue.getQueueSize(), is(equalTo(0)));
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.MergedPollTask;
+
+/**
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MergedPollTaskTest {
+
+    private final ModbusTCPSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("127.0.0.1", 502);
+
+    private PollTask task(ModbusReadFunctionCode functionCode, int start, int length, ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(1, functionCode, start, length, 3), callback);
+    }
+
+    @Test
+    public void testOverlappingAndAdjacentRangesAreMerged() {
+        PollTask task1 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4, mock(ModbusReadCallback.class));
+        PollTask task2 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 4, mock(ModbusReadCallback.class));
+        PollTask task3 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 2, mock(ModbusReadCallback.class));
+
+        List<PollTask> merged = MergedPollTask.merge(Arrays.asList(task3, task1, task2), 0);
+
+        assertThat(merged.size(), is(equalTo(1)));
+        assertThat(merged.get(0), is(instanceOf(MergedPollTask.class)));
+        assertThat(merged.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(merged.get(0).getRequest().getDataLength(), is(equalTo(8)));
+        assertThat(((MergedPollTask) merged.get(0)).getTasks(), is(equalTo(Arrays.asList(task1, task2, task3))));
+    }
+
+    @Test
+    public void testGapsDifferentFunctionCodesAndLimitsAreNotMerged() {
+        PollTask task1 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 4, mock(ModbusReadCallback.class));
+        PollTask task2 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 4, mock(ModbusReadCallback.class));
+        PollTask task3 = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 9, 4, mock(ModbusReadCallback.class));
+        PollTask task4 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 9, 122, mock(ModbusReadCallback.class));
+
+        List<PollTask> merged = MergedPollTask.merge(Arrays.asList(task1, task2, task3, task4), 0);
+        assertThat(merged, is(equalTo(Arrays.asList(task1, task2, task4, task3))));
+
+        // with a gap of one register, the first two tasks are merged but the limit of 125 registers is respected
+        merged = MergedPollTask.merge(Arrays.asList(task1, task2, task3, task4), 1);
+        assertThat(merged.size(), is(equalTo(3)));
+        assertThat(merged.get(0).getRequest().getDataLength(), is(equalTo(9)));
+        assertThat(merged.get(1), is(equalTo(task4)));
+        assertThat(merged.get(2), is(equalTo(task3)));
+    }
+
+    @Test
+    public void testResponseIsSlicedForEachTask() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 3, callback2);
+
+        PollTask merged = MergedPollTask.merge(Arrays.asList(task1, task2), 0).get(0);
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+
+        ArgumentCaptor<ModbusRegisterArray> registers1 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback1).onRegisters(eq(task1.getRequest()), registers1.capture());
+        assertThat(registers1.getValue().toHexString(), is(equalTo("00 01 00 02")));
+
+        ArgumentCaptor<ModbusRegisterArray> registers2 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback2).onRegisters(eq(task2.getRequest()), registers2.capture());
+        assertThat(registers2.getValue().toHexString(), is(equalTo("00 02 00 03 00 04")));
+
+        Exception error = new Exception();
+        merged.getCallback().onError(merged.getRequest(), error);
+        verify(callback1).onError(task1.getRequest(), error);
+        verify(callback2).onError(task2.getRequest(), error);
+    }
+
+    @Test
+    public void testInactiveTasksAreSkipped() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 3, callback2);
+        Set<PollTask> active = new HashSet<>(Arrays.asList(task1, task2));
+
+        MergedPollTask merged = (MergedPollTask) MergedPollTask
+                .merge(Arrays.asList(task1, task2), 0, active::contains).get(0);
+        assertThat(merged.isActive(), is(true));
+
+        // e.g. unregistered while an execution of the merged task was queued
+        active.remove(task1);
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+        verifyZeroInteractions(callback1);
+        verify(callback2).onRegisters(eq(task2.getRequest()), any());
+        assertThat(merged.isActive(), is(true));
+
+        active.remove(task2);
+        assertThat(merged.isActive(), is(false));
+    }
+}
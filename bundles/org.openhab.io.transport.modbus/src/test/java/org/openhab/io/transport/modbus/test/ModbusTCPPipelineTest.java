@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusTCPPipeline;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ModbusMessage;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * @author openHAB Contributors - Initial contribution
+ */
+public class ModbusTCPPipelineTest {
+
+    private static final int TIMEOUT_MILLIS = 500;
+
+    private final ModbusTCPPipeline pipeline = new ModbusTCPPipeline(new ModbusTCPSlaveEndpoint("127.0.0.1", 502));
+    private final List<Integer> writtenTransactionIds = new CopyOnWriteArrayList<>();
+    /**
+     * Responses to read, or exceptions to throw when reading
+     */
+    private final BlockingQueue<Object> responses = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private TCPMasterConnection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        ModbusTransport transport = mock(ModbusTransport.class);
+        doAnswer(invocation -> {
+            writtenTransactionIds.add(((ModbusMessage) invocation.getArgument(0)).getTransactionID());
+            return null;
+        }).when(transport).writeMessage(any());
+        when(transport.readResponse()).thenAnswer(invocation -> {
+            Object response = responses.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (response == null) {
+                throw new ModbusIOException("Read timed out");
+            } else if (response instanceof ModbusIOException) {
+                throw (ModbusIOException) response;
+            }
+            return response;
+        });
+        connection = mock(TCPMasterConnection.class);
+        when(connection.getModbusTransport()).thenReturn(transport);
+        when(connection.getTimeout()).thenReturn(TIMEOUT_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static ModbusResponse response(int transactionId) {
+        ModbusResponse response = new ReadMultipleRegistersResponse();
+        response.setTransactionID(transactionId);
+        return response;
+    }
+
+    private void awaitWrites(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writtenTransactionIds.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(writtenTransactionIds.size(), is(equalTo(count)));
+    }
+
+    @Test
+    public void testResponsesOutOfOrderAreMatchedByTransactionId() throws Exception {
+        List<ModbusRequest> requests = new ArrayList<>();
+        List<Future<ModbusResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ModbusRequest request = new ReadMultipleRegistersRequest(i, 1);
+            requests.add(request);
+            futures.add(executor.submit(() -> pipeline.execute(connection, request)));
+        }
+        // all requests are sent before any response has been received
+        awaitWrites(3);
+        for (int i = writtenTransactionIds.size() - 1; i >= 0; i--) {
+            responses.add(response(writtenTransactionIds.get(i)));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            ModbusResponse response = futures.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(response.getTransactionID(), is(equalTo(requests.get(i).getTransactionID())));
+        }
+        assertThat(pipeline.getTransactionsInFlight(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testUnexpectedTransactionIdIsDiscarded() throws Exception {
+        ModbusRequest request = new ReadMultipleRegistersRequest(0, 1);
+        Future<ModbusResponse> future = executor.submit(() -> pipeline.execute(connection, request));
+        awaitWrites(1);
+        responses.add(response(writtenTransactionIds.get(0) + 100));
+        responses.add(response(writtenTransactionIds.get(0)));
+
+        assertThat(future.get(5, TimeUnit.SECONDS).getTransactionID(), is(equalTo(request.getTransactionID())));
+    }
+
+    @Test
+    public void testIOErrorFailsAllTransactions() throws Exception {
+        Future<ModbusResponse> first = executor
+                .submit(() -> pipeline.execute(connection, new ReadMultipleRegistersRequest(0, 1)));
+        Future<ModbusResponse> second = executor
+                .submit(() -> pipeline.execute(connection, new ReadMultipleRegistersRequest(1, 1)));
+        awaitWrites(2);
+        responses.add(new ModbusIOException("Connection reset"));
+
+        for (Future<ModbusResponse> future : Arrays.asList(first, second)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Expected I/O error");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(ModbusIOException.class)));
+            }
+        }
+        assertThat(pipeline.getTransactionsInFlight(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testReadTimeoutExpiresOnlyOverdueTransactions() throws Exception {
+        Future<ModbusResponse> first = executor
+                .submit(() -> pipeline.execute(connection, new ReadMultipleRegistersRequest(0, 1)));
+        awaitWrites(1);
+        Thread.sleep(TIMEOUT_MILLIS / 2);
+        ModbusRequest request = new ReadMultipleRegistersRequest(1, 1);
+        Future<ModbusResponse> second = executor.submit(() -> pipeline.execute(connection, request));
+        awaitWrites(2);
+        // no responses, the first read times out when only the first transaction has passed its deadline
+
+        try {
+            first.get(5, TimeUnit.SECONDS);
+            fail("Expected timeout");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(ModbusIOException.class)));
+        }
+        assertFalse(second.isDone());
+        responses.add(response(writtenTransactionIds.get(1)));
+
+        assertThat(second.get(5, TimeUnit.SECONDS).getTransactionID(), is(equalTo(request.getTransactionID())));
+        assertThat(pipeline.getTransactionsInFlight(), is(equalTo(0)));
+        assertThat(pipeline.toString(), containsString("broken=false"));
+    }
+
+    @Test
+    public void testConnectionIsBorrowedWithoutHoldingTheLock() throws Exception {
+        CountDownLatch borrowing = new CountDownLatch(1);
+        CountDownLatch connected = new CountDownLatch(1);
+        AtomicInteger borrowed = new AtomicInteger();
+        Future<Optional<ModbusSlaveConnection>> first = executor.submit(() -> pipeline.acquire(() -> {
+            borrowed.incrementAndGet();
+            borrowing.countDown();
+            try {
+                connected.await();
+            } catch (InterruptedException e) {
+                return Optional.empty();
+            }
+            return Optional.of(connection);
+        }));
+        assertTrue(borrowing.await(5, TimeUnit.SECONDS));
+        Future<Optional<ModbusSlaveConnection>> second = executor.submit(() -> pipeline.acquire(() -> {
+            borrowed.incrementAndGet();
+            return Optional.of(connection);
+        }));
+
+        // the pipeline can be used while the connection is being borrowed, the second acquire waits for it
+        assertFalse(pipeline.isShared(connection));
+        assertFalse(second.isDone());
+        connected.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).get(), is(sameInstance(connection)));
+        assertThat(second.get(5, TimeUnit.SECONDS).get(), is(sameInstance(connection)));
+        assertThat(borrowed.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testConnectionIsReturnedByLastUser() {
+        AtomicInteger borrowed = new AtomicInteger();
+        List<ModbusSlaveConnection> returned = new ArrayList<>();
+        List<ModbusSlaveConnection> invalidated = new ArrayList<>();
+
+        Optional<ModbusSlaveConnection> first = pipeline.acquire(() -> {
+            borrowed.incrementAndGet();
+            return Optional.of(connection);
+        });
+        Optional<ModbusSlaveConnection> second = pipeline.acquire(() -> {
+            borrowed.incrementAndGet();
+            return Optional.of(connection);
+        });
+        assertThat(borrowed.get(), is(equalTo(1)));
+        assertTrue(pipeline.isShared(connection));
+
+        pipeline.release(first.get(), false, returned::add, invalidated::add);
+        assertThat(returned.size(), is(equalTo(0)));
+        pipeline.release(second.get(), true, returned::add, invalidated::add);
+        assertThat(returned.size(), is(equalTo(0)));
+        assertThat(invalidated.size(), is(equalTo(1)));
+        assertFalse(pipeline.isShared(connection));
+    }
+}
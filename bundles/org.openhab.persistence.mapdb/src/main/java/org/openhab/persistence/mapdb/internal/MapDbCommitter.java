@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Combines the updates of several {@link MapDbPersistenceService#store} calls into one {@link DB#commit()}.
+ *
+ * A commit is scheduled with the first update after the last commit and runs when the commit interval has passed,
+ * or immediately when the size of the pending updates exceeds the byte budget. An interval of 0 commits every update
+ * on its own. The database is closed through {@link #close()}, so a running commit is never interrupted by it.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitter {
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitter.class);
+
+    private final DB db;
+    private final ScheduledExecutorService scheduler;
+    private final long commitIntervalMillis;
+    private final long commitBytes;
+    private final Object commitLock = new Object();
+
+    private @Nullable ScheduledFuture<?> scheduledCommit;
+    private boolean immediateCommitScheduled;
+    private boolean closed;
+    private int pendingUpdates;
+    private long pendingBytes;
+
+    private long commits;
+    private long committedUpdates;
+    private int maxBatchSize;
+    private long totalCommitNanos;
+    private long maxCommitNanos;
+
+    public MapDbCommitter(DB db, ScheduledExecutorService scheduler, long commitIntervalMillis, long commitBytes) {
+        this.db = db;
+        this.scheduler = scheduler;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.commitBytes = commitBytes;
+    }
+
+    /**
+     * Registers an update of the given size that has been written to the database and needs to be committed.
+     *
+     * @param bytes the size of the written data
+     */
+    public synchronized void updated(int bytes) {
+        if (closed) {
+            return;
+        }
+        pendingUpdates++;
+        pendingBytes += bytes;
+
+        if (commitIntervalMillis <= 0 || pendingBytes >= commitBytes) {
+            // an immediate commit which has not run yet takes this update as well, replacing it could starve it
+            if (!immediateCommitScheduled) {
+                cancelScheduledCommit();
+                scheduledCommit = scheduler.schedule(this::commit, 0, TimeUnit.MILLISECONDS);
+                immediateCommitScheduled = true;
+            }
+        } else if (scheduledCommit == null) {
+            scheduledCommit = scheduler.schedule(this::commit, commitIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Commits all pending updates and closes the database. Updates registered afterwards are ignored.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            cancelScheduledCommit();
+        }
+        commit();
+        synchronized (commitLock) {
+            db.close();
+        }
+    }
+
+    private void commit() {
+        int batchSize;
+        synchronized (this) {
+            scheduledCommit = null;
+            immediateCommitScheduled = false;
+            batchSize = pendingUpdates;
+            if (batchSize == 0) {
+                return;
+            }
+            pendingUpdates = 0;
+            pendingBytes = 0;
+        }
+
+        // the fsync is done outside of the lock, so new updates can be registered meanwhile
+        long duration;
+        synchronized (commitLock) {
+            if (db.isClosed()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                db.commit();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to commit {} updates to the MapDB database: {}", batchSize, e.getMessage());
+                return;
+            }
+            duration = System.nanoTime() - start;
+        }
+
+        synchronized (this) {
+            commits++;
+            committedUpdates += batchSize;
+            maxBatchSize = Math.max(maxBatchSize, batchSize);
+            totalCommitNanos += duration;
+            maxCommitNanos = Math.max(maxCommitNanos, duration);
+        }
+        logger.debug("Committed {} updates to the MapDB database in {} ms", batchSize,
+                TimeUnit.NANOSECONDS.toMillis(duration));
+    }
+
+    private void cancelScheduledCommit() {
+        ScheduledFuture<?> localScheduledCommit = scheduledCommit;
+        if (localScheduledCommit != null) {
+            localScheduledCommit.cancel(false);
+            scheduledCommit = null;
+        }
+    }
+
+    public synchronized long getCommits() {
+        return commits;
+    }
+
+    public synchronized double getAverageBatchSize() {
+        return commits == 0 ? 0 : (double) committedUpdates / commits;
+    }
+
+    public synchronized int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public synchronized double getAverageCommitMillis() {
+        return commits == 0 ? 0 : totalCommitNanos / 1e6 / commits;
+    }
+
+    public synchronized double getMaxCommitMillis() {
+        return maxCommitNanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("commits=%d, batch size avg=%.1f max=%d, commit latency avg=%.2fms max=%.2fms", commits,
+                getAverageBatchSize(), maxBatchSize, getAverageCommitMillis(), getMaxCommitMillis());
+    }
+}
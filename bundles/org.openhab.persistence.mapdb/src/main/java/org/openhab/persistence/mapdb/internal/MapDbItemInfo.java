@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Date;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+
+/**
+ * The {@link PersistenceItemInfo} of an item as kept in the item info index of the MapDB database.
+ *
+ * The index entry of an item is a long array holding the number of stored history values, the earliest and the latest
+ * timestamp, so it can be read without decoding any stored state.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemInfo implements PersistenceItemInfo {
+
+    private static final int COUNT = 0;
+    private static final int EARLIEST = 1;
+    private static final int LATEST = 2;
+
+    private final String name;
+    private final long[] entry;
+
+    public MapDbItemInfo(String name, long[] entry) {
+        this.name = name;
+        this.entry = entry;
+    }
+
+    /**
+     * Creates the index entry for an item or updates the given one with a newly stored value.
+     *
+     * @param entry the current index entry or null if the item has not been stored yet
+     * @param timestamp the timestamp of the stored value
+     * @param historyValues the number of values that have been added to the history store
+     * @return the new index entry
+     */
+    public static long[] update(long @Nullable [] entry, long timestamp, long historyValues) {
+        if (entry == null) {
+            return new long[] { historyValues, timestamp, timestamp };
+        }
+        return new long[] { entry[COUNT] + historyValues, Math.min(entry[EARLIEST], timestamp),
+                Math.max(entry[LATEST], timestamp) };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public @Nullable Integer getCount() {
+        return entry[COUNT] > 0 ? (int) Math.min(entry[COUNT], Integer.MAX_VALUE) : null;
+    }
+
+    /**
+     * Returns the timestamp of the earliest value in the history. Without a history only the latest value is kept, so
+     * its timestamp is returned.
+     */
+    @Override
+    public @Nullable Date getEarliest() {
+        return new Date(entry[COUNT] > 0 ? entry[EARLIEST] : entry[LATEST]);
+    }
+
+    @Override
+    public @Nullable Date getLatest() {
+        return new Date(entry[LATEST]);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        return obj instanceof MapDbItemInfo && name.equals(((MapDbItemInfo) obj).name);
+    }
+}
@@ -12,14 +12,21 @@
  */
 package org.openhab.persistence.mapdb.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,16 +35,24 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.mapdb.BTreeKeySerializer;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Fun;
+import org.mapdb.Serializer;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,7 +68,8 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        MapDbPersistenceService.class }, configurationPid = "org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,47 +78,112 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    private static final String CONFIG_HISTORY = "history";
+    private static final String CONFIG_COMMIT_INTERVAL = "commitInterval";
+    private static final String CONFIG_COMMIT_BYTES = "commitBytes";
+
+    private static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 1000;
+    private static final long DEFAULT_COMMIT_BYTES = 64 * 1024;
+
+    /** the map used by previous versions, which stored the items as JSON strings */
+    private static final String JSON_STORE_NAME = "itemStore";
+    private static final String LATEST_STORE_NAME = "latestStore";
+    private static final String HISTORY_STORE_NAME = "historyStore";
+    private static final String ITEM_INFO_STORE_NAME = "itemInfoStore";
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService threadPool;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, byte[]> map;
+    @NonNullByDefault({})
+    private MapDbCommitter committer;
 
-    private transient Gson mapper = new GsonBuilder()
-            .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
-            .create();
+    /** holds the {@link MapDbItemInfo} entries by item name, so they can be read without decoding any state */
+    @NonNullByDefault({})
+    private Map<String, long[]> itemInfoMap;
+
+    /**
+     * holds all stored states by item name, timestamp and a sequence number if the history mode is enabled, the values
+     * are encoded by the {@link StateCodec}. The sequence number keeps states stored within the same millisecond apart.
+     */
+    private @Nullable NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> historyMap;
 
-    public void activate() {
+    @Activate
+    public void activate(final Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        threadPool = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
 
-        File folder = new File(DB_FOLDER_NAME);
+        String dbFolder = getDbFolder();
+        File folder = new File(dbFolder);
         if (!folder.exists()) {
             if (!folder.mkdirs()) {
-                logger.warn("Failed to create one or more directories in the path '{}'", DB_FOLDER_NAME);
+                logger.warn("Failed to create one or more directories in the path '{}'", dbFolder);
                 logger.warn("MapDB persistence service activation has failed.");
                 return;
             }
         }
 
-        File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
+        File dbFile = new File(dbFolder, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-        map = db.createTreeMap("itemStore").makeOrGet();
+        map = db.createTreeMap(LATEST_STORE_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        if (db.exists(JSON_STORE_NAME)) {
+            migrateJsonStore();
+        }
+        if (Boolean.parseBoolean(String.valueOf(config.get(CONFIG_HISTORY)))) {
+            historyMap = db.createTreeMap(HISTORY_STORE_NAME).keySerializer(BTreeKeySerializer.TUPLE3)
+                    .valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+            logger.debug("MapDB persistence service keeps the history of all stored states");
+        }
+        boolean itemInfoExists = db.exists(ITEM_INFO_STORE_NAME);
+        itemInfoMap = db.createTreeMap(ITEM_INFO_STORE_NAME).valueSerializer(Serializer.LONG_ARRAY).makeOrGet();
+        if (!itemInfoExists) {
+            buildItemInfo();
+        }
+        committer = new MapDbCommitter(db, threadPool,
+                getLong(config, CONFIG_COMMIT_INTERVAL, DEFAULT_COMMIT_INTERVAL_MILLIS),
+                getLong(config, CONFIG_COMMIT_BYTES, DEFAULT_COMMIT_BYTES));
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
-        if (db != null) {
+        if (committer != null) {
+            committer.close();
+            logger.debug("MapDB commit statistics: {}", committer);
+        } else if (db != null) {
             db.close();
         }
-        threadPool.shutdown();
+    }
+
+    /**
+     * @return the folder holding the database file
+     */
+    protected String getDbFolder() {
+        return DB_FOLDER_NAME;
+    }
+
+    /**
+     * @return the timestamp of a state stored now
+     */
+    protected Date getCurrentDate() {
+        return new Date();
+    }
+
+    /**
+     * Returns the committer which holds the commit latency and batch size statistics.
+     *
+     * @return the committer, or null if the service has not been activated successfully
+     */
+    public @Nullable MapDbCommitter getCommitter() {
+        return committer;
     }
 
     @Override
@@ -117,9 +198,12 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
-                .flatMap(MapDbPersistenceService::streamOptional)
+        if (itemInfoMap == null) {
+            // the activation has failed
+            return Collections.emptySet();
+        }
+        return itemInfoMap.entrySet().stream()
+                .map(entry -> new MapDbItemInfo(entry.getKey(), entry.getValue()))
                 .collect(Collectors.<PersistenceItemInfo>toSet());
     }
 
@@ -133,6 +217,10 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         if (item.getState() instanceof UnDefType) {
             return;
         }
+        if (map == null || itemInfoMap == null || committer == null) {
+            logger.warn("MapDB persistence service has not been activated, not storing '{}'", item.getName());
+            return;
+        }
 
         // PersistenceManager passes SimpleItemConfiguration.alias which can be null
         if (alias == null) {
@@ -144,41 +232,203 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         MapDbItem mItem = new MapDbItem();
         mItem.setName(alias);
         mItem.setState(state);
-        mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        mItem.setTimestamp(getCurrentDate());
+        byte[] value = encode(mItem);
+        map.put(alias, value);
+        int bytes = value.length;
+        long timestamp = mItem.getTimestamp().getTime();
+        NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> localHistoryMap = historyMap;
+        byte[] encodedState = null;
+        if (localHistoryMap != null) {
+            encodedState = StateCodec.encode(state);
+            bytes += encodedState.length;
+        }
+        synchronized (itemInfoMap) {
+            if (localHistoryMap != null && encodedState != null) {
+                // the key is picked under the lock, so concurrent stores within one millisecond get distinct keys
+                localHistoryMap.put(nextHistoryKey(localHistoryMap, alias, timestamp), encodedState);
+            }
+            itemInfoMap.put(alias,
+                    MapDbItemInfo.update(itemInfoMap.get(alias), timestamp, encodedState != null ? 1 : 0));
+        }
+        committer.updated(bytes);
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
     }
 
+    /**
+     * Returns a history key which sorts after all states stored for the item at the same timestamp.
+     */
+    private static Fun.Tuple3<String, Long, Integer> nextHistoryKey(
+            NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> historyMap, String name, long timestamp) {
+        Fun.Tuple3<String, Long, Integer> last = historyMap.floorKey(Fun.t3(name, timestamp, Integer.MAX_VALUE));
+        if (last != null && name.equals(last.a) && last.b == timestamp) {
+            return Fun.t3(name, timestamp, last.c + 1);
+        }
+        return Fun.t3(name, timestamp, 0);
+    }
+
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> localHistoryMap = historyMap;
+        if (localHistoryMap != null) {
+            // the stream is created lazily on every iteration, so the result is never loaded into memory at once
+            return () -> queryHistory(localHistoryMap, filter).iterator();
+        }
+
+        String name = filter.getItemName();
+        byte[] value = name == null || map == null ? null : map.get(name);
+        if (name == null || value == null) {
             return Collections.emptyList();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = decode(name, value);
         if (!item.isPresent()) {
             return Collections.emptyList();
         }
         return Collections.singletonList(item.get());
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private Stream<HistoricItem> queryHistory(NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> historyMap,
+            FilterCriteria filter) {
+        String name = filter.getItemName();
+        if (name == null) {
+            return Stream.empty();
+        }
+        Date begin = filter.getBeginDate();
+        Date end = filter.getEndDate();
+        NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> range = historyMap.subMap(
+                Fun.t3(name, begin == null ? Long.MIN_VALUE : begin.getTime(), Integer.MIN_VALUE), true,
+                Fun.t3(name, end == null ? Long.MAX_VALUE : end.getTime(), Integer.MAX_VALUE), true);
+        if (filter.getOrdering() == Ordering.DESCENDING) {
+            range = range.descendingMap();
+        }
+
+        Stream<HistoricItem> items = range.entrySet().stream().map(entry -> {
+            State state = StateCodec.decode(entry.getValue());
+            if (state == null) {
+                return Optional.<HistoricItem>empty();
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(entry.getKey().b));
+            return Optional.<HistoricItem>of(item);
+        }).flatMap(MapDbPersistenceService::streamOptional);
+
+        State filterState = filter.getState();
+        if (filterState != null) {
+            items = items.filter(item -> matches(item.getState(), filter.getOperator(), filterState));
+        }
+        int pageSize = filter.getPageSize();
+        return items.skip((long) filter.getPageNumber() * pageSize).limit(pageSize);
     }
 
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
-        if (item == null || !item.isValid()) {
-            logger.warn("Deserialized invalid item: {}", item);
+    private static boolean matches(State state, Operator operator, State filterState) {
+        switch (operator) {
+            case EQ:
+                return state.equals(filterState);
+            case NEQ:
+                return !state.equals(filterState);
+            default:
+                DecimalType value = state.as(DecimalType.class);
+                DecimalType filterValue = filterState.as(DecimalType.class);
+                if (value == null || filterValue == null) {
+                    return false;
+                }
+                int result = value.compareTo(filterValue);
+                switch (operator) {
+                    case GT:
+                        return result > 0;
+                    case GTE:
+                        return result >= 0;
+                    case LT:
+                        return result < 0;
+                    case LTE:
+                        return result <= 0;
+                    default:
+                        return false;
+                }
+        }
+    }
+
+    /**
+     * Converts the JSON strings stored by previous versions of this service into the binary format.
+     */
+    private void migrateJsonStore() {
+        Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        Map<String, String> jsonMap = db.getTreeMap(JSON_STORE_NAME);
+        for (Map.Entry<String, String> entry : jsonMap.entrySet()) {
+            MapDbItem item = mapper.<MapDbItem>fromJson(entry.getValue(), MapDbItem.class);
+            if (item == null || !item.isValid()) {
+                logger.warn("Skipping invalid item '{}' during migration", entry.getKey());
+                continue;
+            }
+            map.putIfAbsent(entry.getKey(), encode(item));
+        }
+        logger.info("Migrated {} items to the binary MapDB storage format", jsonMap.size());
+        db.delete(JSON_STORE_NAME);
+        db.commit();
+    }
+
+    /**
+     * Builds the item info index from the stored items, which is needed once for databases of previous versions.
+     */
+    private void buildItemInfo() {
+        for (Map.Entry<String, byte[]> entry : map.entrySet()) {
+            // the timestamp is stored in front of the state, so the state does not need to be decoded
+            long timestamp = ByteBuffer.wrap(entry.getValue()).getLong();
+            itemInfoMap.put(entry.getKey(), MapDbItemInfo.update(null, timestamp, 0));
+        }
+        if (db.exists(HISTORY_STORE_NAME)) {
+            NavigableMap<Fun.Tuple3<String, Long, Integer>, byte[]> history = db.getTreeMap(HISTORY_STORE_NAME);
+            for (Fun.Tuple3<String, Long, Integer> key : history.keySet()) {
+                itemInfoMap.put(key.a, MapDbItemInfo.update(itemInfoMap.get(key.a), key.b, 1));
+            }
+        }
+        db.commit();
+        logger.debug("Built the item info index for {} items", itemInfoMap.size());
+    }
+
+    private static byte[] encode(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(40);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(item.getTimestamp().getTime());
+            StateCodec.encode(out, item.getState());
+        } catch (IOException e) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Optional<MapDbItem> decode(String name, byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            Date timestamp = new Date(in.readLong());
+            State state = StateCodec.decode(in);
+            if (state == null) {
+                return Optional.empty();
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(timestamp);
+            return Optional.of(item);
+        } catch (IOException e) {
+            logger.warn("Couldn't decode stored item '{}': {}", name, e.getMessage());
             return Optional.empty();
         }
-        return Optional.of(item);
     }
 
-    private void commit() {
-        threadPool.submit(() -> db.commit());
+    private long getLong(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for configuration parameter '{}', using {}", value, key, defaultValue);
+            return defaultValue;
+        }
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PlayPauseType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.RewindFastforwardType;
+import org.eclipse.smarthome.core.library.types.StringListType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encodes {@link State} values into a compact binary form for the MapDB stores.
+ *
+ * The encoding starts with a one byte tag identifying the state type. Only the core types in {@link #KNOWN_TYPES}
+ * have a tag, any other type is stored as a {@link StringType} of its full string representation, so no class is
+ * ever loaded by a name read from the database. Enum, decimal and color states are written in binary form, all other
+ * states are written as their full string representation and parsed back through the {@link TypeParser}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+public final class StateCodec {
+
+    /** tag followed by a class name, only written by previous versions and decoded for the known types */
+    private static final byte TAG_CLASS_NAME = 0;
+
+    /** Known state types, the tag of a type is its index in this list plus one. Only append to this list! */
+    private static final List<Class<? extends State>> KNOWN_TYPES = Arrays.asList(OnOffType.class,
+            OpenClosedType.class, UpDownType.class, DecimalType.class, PercentType.class, HSBType.class,
+            StringType.class, DateTimeType.class, PointType.class, PlayPauseType.class, RewindFastforwardType.class,
+            QuantityType.class, RawType.class, StringListType.class);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateCodec.class);
+
+    private StateCodec() {
+    }
+
+    public static byte[] encode(State state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encode(out, state);
+        } catch (IOException e) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void encode(DataOutputStream out, State state) throws IOException {
+        int index = KNOWN_TYPES.indexOf(state.getClass());
+        if (index < 0) {
+            LOGGER.debug("Encoding state '{}' of unknown type '{}' as string", state, state.getClass().getName());
+            out.writeByte(KNOWN_TYPES.indexOf(StringType.class) + 1);
+            writeString(out, state.toFullString());
+            return;
+        }
+        out.writeByte(index + 1);
+
+        if (state instanceof Enum<?>) {
+            out.writeByte(((Enum<?>) state).ordinal());
+        } else if (state instanceof HSBType) {
+            HSBType hsb = (HSBType) state;
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (state instanceof DecimalType) {
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else {
+            writeString(out, state.toFullString());
+        }
+    }
+
+    public static @Nullable State decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return decode(in);
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't decode state: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    public static @Nullable State decode(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        Class<? extends State> type;
+        if (tag == TAG_CLASS_NAME) {
+            String className = in.readUTF();
+            Optional<Class<? extends State>> knownType = KNOWN_TYPES.stream()
+                    .filter(candidate -> candidate.getName().equals(className)).findFirst();
+            if (!knownType.isPresent()) {
+                LOGGER.warn("Couldn't decode state of unknown type '{}'", className);
+                return null;
+            }
+            type = knownType.get();
+        } else if (tag <= KNOWN_TYPES.size()) {
+            type = KNOWN_TYPES.get(tag - 1);
+        } else {
+            LOGGER.warn("Couldn't decode state with unknown type tag {}", tag);
+            return null;
+        }
+
+        if (type.isEnum()) {
+            State[] constants = type.getEnumConstants();
+            int ordinal = in.readUnsignedByte();
+            return ordinal < constants.length ? constants[ordinal] : null;
+        } else if (type == HSBType.class) {
+            return new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                    new PercentType(readDecimal(in)));
+        } else if (type == PercentType.class) {
+            return new PercentType(readDecimal(in));
+        } else if (type == DecimalType.class) {
+            return new DecimalType(readDecimal(in));
+        }
+        String value = readString(in);
+        State state = TypeParser.parseState(Collections.singletonList(type), value);
+        if (state == null) {
+            LOGGER.warn("Couldn't decode state '{}' of type '{}'", value, type.getName());
+        }
+        return state;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    // DataOutput.writeUTF is limited to 64k, which is not enough for e.g. RawType images
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.persistence.mapdb.internal.MapDbCommitter;
+
+/**
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MapDbCommitterTest {
+
+    @Mock
+    private DB db;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> delayedCommit;
+
+    @Mock
+    private ScheduledFuture<?> immediateCommit;
+
+    private MapDbCommitter committer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(delayedCommit).when(scheduler).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        doReturn(immediateCommit).when(scheduler).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+        committer = new MapDbCommitter(db, scheduler, 1000, 100);
+    }
+
+    @Test
+    public void updatesBelowTheBudgetShouldBeCommittedAfterTheInterval() {
+        committer.updated(10);
+        committer.updated(10);
+
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        verify(scheduler, never()).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void pendingImmediateCommitShouldNotBeReplaced() {
+        committer.updated(10);
+        for (int i = 0; i < 10; i++) {
+            committer.updated(100);
+        }
+
+        verify(delayedCommit).cancel(false);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+        verify(immediateCommit, never()).cancel(anyBoolean());
+    }
+
+    @Test
+    public void immediateCommitShouldTakeAllPendingUpdates() {
+        ArgumentCaptor<Runnable> commit = ArgumentCaptor.forClass(Runnable.class);
+        for (int i = 0; i < 5; i++) {
+            committer.updated(100);
+        }
+        verify(scheduler).schedule(commit.capture(), eq(0L), eq(TimeUnit.MILLISECONDS));
+
+        commit.getValue().run();
+
+        verify(db, times(1)).commit();
+        assertThat(committer.getCommits(), is(1L));
+        assertThat(committer.getMaxBatchSize(), is(5));
+
+        // the next update over the budget schedules a new commit
+        committer.updated(100);
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void closeShouldCommitAndCloseTheDatabase() {
+        committer.updated(10);
+
+        committer.close();
+        committer.updated(100);
+
+        verify(delayedCommit).cancel(false);
+        verify(db).commit();
+        verify(db).close();
+        verify(scheduler, never()).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItemInfo;
+
+/**
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MapDbItemInfoTest {
+
+    @Test
+    public void updateShouldTrackCountAndTimestampRange() {
+        long[] entry = MapDbItemInfo.update(null, 2000, 1);
+        entry = MapDbItemInfo.update(entry, 3000, 1);
+        entry = MapDbItemInfo.update(entry, 1000, 1);
+
+        MapDbItemInfo info = new MapDbItemInfo("item", entry);
+        assertThat(info.getName(), is("item"));
+        assertThat(info.getCount(), is(3));
+        assertThat(info.getEarliest(), is(new Date(1000)));
+        assertThat(info.getLatest(), is(new Date(3000)));
+    }
+
+    @Test
+    public void countShouldBeUnknownWithoutHistory() {
+        long[] entry = MapDbItemInfo.update(null, 1000, 0);
+        entry = MapDbItemInfo.update(entry, 2000, 0);
+
+        MapDbItemInfo info = new MapDbItemInfo("item", entry);
+        assertThat(info.getCount(), is(nullValue()));
+        // only the latest value is kept
+        assertThat(info.getEarliest(), is(new Date(2000)));
+        assertThat(info.getLatest(), is(new Date(2000)));
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbPersistenceService;
+
+/**
+ * Stores and queries states of a {@link MapDbPersistenceService} using a temporary database.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class MapDbPersistenceServiceTest {
+
+    private static final String ITEM = "item";
+
+    private File folder;
+    private long now;
+    private TestableMapDbPersistenceService service;
+
+    private class TestableMapDbPersistenceService extends MapDbPersistenceService {
+        @Override
+        protected String getDbFolder() {
+            return folder.getPath();
+        }
+
+        @Override
+        protected Date getCurrentDate() {
+            return new Date(now);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("mapdb").toFile();
+        service = new TestableMapDbPersistenceService();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        service.deactivate();
+        FileUtils.deleteDirectory(folder);
+    }
+
+    private void activate(boolean history) {
+        service.activate(Collections.<String, Object> singletonMap("history", String.valueOf(history)));
+    }
+
+    private void store(long timestamp, int value) {
+        now = timestamp;
+        NumberItem item = new NumberItem(ITEM);
+        item.setState(new DecimalType(value));
+        service.store(item);
+    }
+
+    private List<String> query(FilterCriteria filter) {
+        List<String> result = new ArrayList<>();
+        for (HistoricItem item : service.query(filter.setItemName(ITEM))) {
+            assertThat(item.getName(), is(ITEM));
+            result.add(item.getTimestamp().getTime() + "=" + item.getState());
+        }
+        return result;
+    }
+
+    private void storeHistory() {
+        activate(true);
+        for (int i = 1; i <= 5; i++) {
+            store(i * 1000, i);
+        }
+    }
+
+    @Test
+    public void queryShouldReturnTheStatesWithinTheDateRange() {
+        storeHistory();
+
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.ASCENDING).setBeginDate(new Date(2000))
+                .setEndDate(new Date(4000))), is(list("2000=2", "3000=3", "4000=4")));
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.ASCENDING).setBeginDate(new Date(4500))),
+                is(list("5000=5")));
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.ASCENDING).setEndDate(new Date(1500))),
+                is(list("1000=1")));
+        assertThat(query(new FilterCriteria().setBeginDate(new Date(6000))), is(list()));
+    }
+
+    @Test
+    public void queryShouldReturnTheStatesInTheRequestedOrder() {
+        storeHistory();
+
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.ASCENDING)),
+                is(list("1000=1", "2000=2", "3000=3", "4000=4", "5000=5")));
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.DESCENDING)),
+                is(list("5000=5", "4000=4", "3000=3", "2000=2", "1000=1")));
+    }
+
+    @Test
+    public void queryShouldFilterTheStates() {
+        storeHistory();
+        FilterCriteria filter = new FilterCriteria().setOrdering(Ordering.ASCENDING).setState(new DecimalType(3));
+
+        assertThat(query(filter.setOperator(Operator.EQ)), is(list("3000=3")));
+        assertThat(query(filter.setOperator(Operator.NEQ)), is(list("1000=1", "2000=2", "4000=4", "5000=5")));
+        assertThat(query(filter.setOperator(Operator.GT)), is(list("4000=4", "5000=5")));
+        assertThat(query(filter.setOperator(Operator.GTE)), is(list("3000=3", "4000=4", "5000=5")));
+        assertThat(query(filter.setOperator(Operator.LT)), is(list("1000=1", "2000=2")));
+        assertThat(query(filter.setOperator(Operator.LTE)), is(list("1000=1", "2000=2", "3000=3")));
+    }
+
+    @Test
+    public void queryShouldReturnTheRequestedPage() {
+        storeHistory();
+        FilterCriteria filter = new FilterCriteria().setOrdering(Ordering.ASCENDING).setPageSize(2);
+
+        assertThat(query(filter.setPageNumber(0)), is(list("1000=1", "2000=2")));
+        assertThat(query(filter.setPageNumber(1)), is(list("3000=3", "4000=4")));
+        assertThat(query(filter.setPageNumber(2)), is(list("5000=5")));
+        assertThat(query(filter.setPageNumber(3)), is(list()));
+    }
+
+    @Test
+    public void statesStoredInTheSameMillisecondShouldBeKept() {
+        activate(true);
+        store(1000, 1);
+        store(1000, 2);
+        store(1000, 3);
+        store(2000, 4);
+
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.ASCENDING)),
+                is(list("1000=1", "1000=2", "1000=3", "2000=4")));
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.DESCENDING).setEndDate(new Date(1000))),
+                is(list("1000=3", "1000=2", "1000=1")));
+        assertThat(service.getItemInfo().iterator().next().getCount(), is(4));
+    }
+
+    @Test
+    public void queryWithoutHistoryShouldReturnTheLatestState() {
+        activate(false);
+        store(1000, 1);
+        store(2000, 2);
+
+        assertThat(query(new FilterCriteria()), is(list("2000=2")));
+        assertThat(service.query(new FilterCriteria().setItemName("unknown")).iterator().hasNext(), is(false));
+        PersistenceItemInfo info = service.getItemInfo().iterator().next();
+        assertThat(info.getCount(), is(nullValue()));
+        assertThat(info.getEarliest(), is(new Date(2000)));
+        assertThat(info.getLatest(), is(new Date(2000)));
+    }
+
+    @Test
+    public void serviceShouldIgnoreCallsWhenTheActivationFailed() throws IOException {
+        // the database folder cannot be created below a file
+        File file = new File(folder, "file");
+        assertTrue(file.createNewFile());
+        folder = new File(file, "mapdb");
+        activate(true);
+
+        store(1000, 1);
+
+        assertThat(query(new FilterCriteria()), is(list()));
+        assertTrue(service.getItemInfo().isEmpty());
+        folder = file.getParentFile();
+    }
+
+    @Test
+    public void historyShouldBeKeptWhenTheServiceIsActivatedAgain() {
+        storeHistory();
+        service.deactivate();
+        service = new TestableMapDbPersistenceService();
+
+        activate(true);
+
+        assertThat(query(new FilterCriteria().setOrdering(Ordering.ASCENDING).setBeginDate(new Date(4000))),
+                is(list("4000=4", "5000=5")));
+    }
+
+    private static List<String> list(String... values) {
+        return Arrays.asList(values);
+    }
+}
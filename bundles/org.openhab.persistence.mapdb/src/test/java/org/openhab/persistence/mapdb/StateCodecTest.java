@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.StateCodec;
+
+/**
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class StateCodecTest {
+
+    @Test
+    public void encodeDecodeRoundtripShouldRecreateTheEncodedState() {
+        assertThat(roundtrip(OnOffType.ON), is(equalTo(OnOffType.ON)));
+        assertThat(roundtrip(OpenClosedType.CLOSED), is(equalTo(OpenClosedType.CLOSED)));
+        assertThat(roundtrip(PercentType.HUNDRED), is(equalTo(PercentType.HUNDRED)));
+        assertThat(roundtrip(HSBType.GREEN), is(equalTo(HSBType.GREEN)));
+        assertThat(roundtrip(new DecimalType("-12.345")), is(equalTo(new DecimalType("-12.345"))));
+        assertThat(roundtrip(new DecimalType("123456789012345678901234567890.5")),
+                is(equalTo(new DecimalType("123456789012345678901234567890.5"))));
+        assertThat(roundtrip(new HSBType("120,50.5,33")), is(equalTo(new HSBType("120,50.5,33"))));
+        assertThat(roundtrip(new QuantityType<>("21.5 °C")), is(equalTo(new QuantityType<>("21.5 °C"))));
+        assertThat(roundtrip(StringType.valueOf("test")), is(equalTo(StringType.valueOf("test"))));
+    }
+
+    @Test
+    public void decodeShouldReturnNullForUnknownTypeTag() {
+        assertThat(StateCodec.decode(new byte[] { (byte) 0xFF }), is(nullValue()));
+    }
+
+    @Test
+    public void decodeShouldNotLoadClassesByName() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(0);
+            out.writeUTF(CustomState.class.getName());
+            out.writeInt(0);
+        }
+        assertThat(StateCodec.decode(bytes.toByteArray()), is(nullValue()));
+    }
+
+    @Test
+    public void unknownStateTypesShouldBeEncodedAsString() {
+        assertThat(roundtrip(new CustomState()), is(equalTo(StringType.valueOf("custom"))));
+    }
+
+    private State roundtrip(State state) {
+        return StateCodec.decode(StateCodec.encode(state));
+    }
+
+    public static class CustomState implements State {
+        @Override
+        public String format(String pattern) {
+            return toFullString();
+        }
+
+        @Override
+        public String toFullString() {
+            return "custom";
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the workers of the EXEC transformation
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class ExecConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_WORKERS = "workers";
+
+    private final ExecTransformationService service;
+
+    @Activate
+    public ExecConsoleCommandExtension(@Reference ExecTransformationService service) {
+        super("exec", "Inspect the EXEC transformation.");
+        this.service = service;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_WORKERS.equals(args[0])) {
+            printWorkers(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printWorkers(Console console) {
+        List<ExecWorker> workers = service.getWorkers();
+        if (workers.isEmpty()) {
+            console.println("No EXEC workers have been started.");
+            return;
+        }
+        workers.sort(Comparator.comparing(ExecWorker::getCommandLine));
+        for (ExecWorker worker : workers) {
+            long transformations = worker.getTransformations();
+            console.println(worker.getCommandLine());
+            console.println(String.format("  %d transformations, %d failed, %d rejected, %d starts",
+                    transformations, worker.getFailures(), worker.getRejected(), worker.getStarts()));
+            console.println(String.format("  latency: %d ms average, %d ms max",
+                    transformations == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(worker.getTotalNanos() / transformations),
+                    TimeUnit.NANOSECONDS.toMillis(worker.getMaxNanos())));
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_WORKERS, "show the running workers and their statistics"));
+    }
+}
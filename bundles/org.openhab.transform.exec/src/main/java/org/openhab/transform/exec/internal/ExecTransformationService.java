@@ -12,12 +12,20 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,14 +33,39 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
  *
+ * <p>
+ * A command line starting with {@value #WORKER_PREFIX} is started once and kept running as worker: values are
+ * written line by line to its standard input and the results read line by line from its standard output, see
+ * {@link ExecWorker}.
+ *
  * @author Pauli Anttila
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=EXEC" })
+@Component(service = { TransformationService.class,
+        ExecTransformationService.class }, immediate = true, property = { "smarthome.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
 
+    static final String WORKER_PREFIX = "WORKER:";
+
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Maximum number of values waiting for a worker, further values are discarded
+     */
+    private static final int MAX_WAITING_PER_WORKER = 16;
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
 
+    private final Map<String, ExecWorker> workers = new ConcurrentHashMap<>();
+    private final ExecutorService readExecutor = Executors.newCachedThreadPool();
+
+    @Deactivate
+    public void deactivate() {
+        workers.values().forEach(ExecWorker::stop);
+        workers.clear();
+        readExecutor.shutdownNow();
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
@@ -50,11 +83,26 @@ public class ExecTransformationService implements TransformationService {
 
         long startTime = System.currentTimeMillis();
 
+        if (commandLine.startsWith(WORKER_PREFIX)) {
+            String workerCommandLine = commandLine.substring(WORKER_PREFIX.length()).trim();
+            String result = workers.computeIfAbsent(workerCommandLine,
+                    c -> new ExecWorker(c, readExecutor, MAX_WAITING_PER_WORKER)).transform(source, TIMEOUT_MILLIS);
+            logger.trace("worker execution elapsed {} ms", System.currentTimeMillis() - startTime);
+            return result;
+        }
+
         String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
+        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, TIMEOUT_MILLIS);
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
     }
 
+    /**
+     * @return the workers started so far
+     */
+    List<ExecWorker> getWorkers() {
+        return new ArrayList<>(workers.values());
+    }
+
 }
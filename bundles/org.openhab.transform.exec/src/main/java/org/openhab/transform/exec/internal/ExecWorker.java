@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A command started once and kept running, transforming values line by line: each value is written as one line to
+ * the standard input of the process, and the next line of its standard output is the result.
+ *
+ * Values are transformed one at a time. A failing process (I/O error, no answer in time, or exited) is destroyed and
+ * restarted with the next value.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+class ExecWorker {
+
+    private final Logger logger = LoggerFactory.getLogger(ExecWorker.class);
+
+    private final String commandLine;
+    private final ExecutorService readExecutor;
+    private final int maxWaiting;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // written while holding the lock
+    private volatile @Nullable Process process;
+    // guarded by lock
+    private @Nullable BufferedWriter stdin;
+    private @Nullable BufferedReader stdout;
+
+    private final AtomicLong transformations = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong starts = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param commandLine the command to start
+     * @param readExecutor executor reading the answers of the process, to be able to time out
+     * @param maxWaiting maximum number of values waiting for the process, further values are rejected
+     */
+    ExecWorker(String commandLine, ExecutorService readExecutor, int maxWaiting) {
+        this.commandLine = commandLine;
+        this.readExecutor = readExecutor;
+        this.maxWaiting = maxWaiting;
+    }
+
+    /**
+     * Transform a value
+     *
+     * @param source the value, line breaks are replaced by spaces
+     * @param timeoutMillis maximum time to wait for the process, including the time waiting for other values
+     * @return the answer of the process
+     * @throws TransformationException when the process could not be started, failed, did not answer in time, or too
+     *             many values are waiting for it
+     */
+    String transform(String source, long timeoutMillis) throws TransformationException {
+        long start = System.nanoTime();
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new TransformationException(
+                    String.format("Too many values waiting for the command '%s', value discarded", commandLine));
+        }
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                failures.incrementAndGet();
+                throw new TransformationException(
+                        String.format("Timed out waiting for the command '%s' to transform other values", commandLine));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for the command " + commandLine, e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        try {
+            long remainingMillis = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String result = exchange(source, Math.max(remainingMillis, 1));
+            long elapsed = System.nanoTime() - start;
+            transformations.incrementAndGet();
+            totalNanos.addAndGet(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            return result;
+        } catch (TransformationException e) {
+            failures.incrementAndGet();
+            stopProcess();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private String exchange(String source, long timeoutMillis) throws TransformationException {
+        ensureStarted();
+        BufferedWriter stdin = this.stdin;
+        BufferedReader stdout = this.stdout;
+        if (stdin == null || stdout == null) {
+            throw new TransformationException("Command " + commandLine + " is not running");
+        }
+        try {
+            stdin.write(source.replace('\r', ' ').replace('\n', ' '));
+            stdin.newLine();
+            stdin.flush();
+        } catch (IOException e) {
+            throw new TransformationException("Writing to the command " + commandLine + " failed", e);
+        }
+
+        Future<@Nullable String> answer = readExecutor.submit(stdout::readLine);
+        try {
+            String line = answer.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (line == null) {
+                throw new TransformationException("Command " + commandLine + " exited");
+            }
+            return line;
+        } catch (TimeoutException e) {
+            answer.cancel(true);
+            throw new TransformationException(
+                    String.format("Command '%s' did not answer within %d ms", commandLine, timeoutMillis), e);
+        } catch (ExecutionException e) {
+            throw new TransformationException("Reading from the command " + commandLine + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            answer.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for the command " + commandLine, e);
+        }
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private void ensureStarted() throws TransformationException {
+        Process process = this.process;
+        if (process != null && process.isAlive()) {
+            return;
+        }
+        if (process != null) {
+            logger.warn("Command '{}' exited with {}, restarting", commandLine, process.exitValue());
+            stopProcess();
+        }
+        try {
+            // same splitting as ExecUtil: "@@" separates the arguments if present, whitespace otherwise
+            String[] command = commandLine.contains("@@") ? commandLine.split("@@")
+                    : commandLine.trim().split("\\s+");
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        } catch (IOException e) {
+            throw new TransformationException("Starting the command " + commandLine + " failed", e);
+        }
+        starts.incrementAndGet();
+        logger.debug("Started command '{}'", commandLine);
+        this.process = process;
+        stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stop the process, it is started again with the next value
+     */
+    void stop() {
+        lock.lock();
+        try {
+            stopProcess();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stopProcess() {
+        Process process = this.process;
+        if (process != null) {
+            // closing stdin lets well-behaved commands exit on their own
+            try {
+                BufferedWriter stdin = this.stdin;
+                if (stdin != null) {
+                    stdin.close();
+                }
+            } catch (IOException e) {
+                // the process is destroyed anyway
+            }
+            process.destroy();
+        }
+        this.process = null;
+        stdin = null;
+        stdout = null;
+    }
+
+    /**
+     * @return true if the process is started and has not exited
+     */
+    boolean isRunning() {
+        Process process = this.process;
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * @return the number of values waiting for the process to transform other values
+     */
+    int getWaiting() {
+        return waiting.get();
+    }
+
+    String getCommandLine() {
+        return commandLine;
+    }
+
+    long getTransformations() {
+        return transformations.get();
+    }
+
+    long getFailures() {
+        return failures.get();
+    }
+
+    long getRejected() {
+        return rejected.get();
+    }
+
+    long getStarts() {
+        return starts.get();
+    }
+
+    long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    long getMaxNanos() {
+        return maxNanos.get();
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for the workers of {@link ExecTransformationService}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class ExecTransformationServiceTest {
+
+    private static final String WORKER = ExecTransformationService.WORKER_PREFIX + ExecWorkerTest.ECHO;
+
+    private final ExecTransformationService processor = new ExecTransformationService();
+
+    @Before
+    public void setUp() {
+        assumeTrue(File.separatorChar == '/');
+    }
+
+    @After
+    public void tearDown() {
+        processor.deactivate();
+    }
+
+    @Test
+    public void workerIsStartedOnceForACommandLine() throws TransformationException {
+        assertThat(processor.transform(WORKER, "a"), is("a"));
+        assertThat(processor.transform(WORKER, "b"), is("b"));
+
+        List<ExecWorker> workers = processor.getWorkers();
+        assertThat(workers.size(), is(1));
+        assertThat(workers.get(0).getStarts(), is(1L));
+        assertThat(workers.get(0).getTransformations(), is(2L));
+    }
+
+    @Test
+    public void deactivateStopsTheWorkers() throws TransformationException {
+        assertThat(processor.transform(WORKER, "a"), is("a"));
+        ExecWorker worker = processor.getWorkers().get(0);
+        assertThat(worker.isRunning(), is(true));
+
+        processor.deactivate();
+
+        assertThat(worker.isRunning(), is(false));
+        assertTrue(processor.getWorkers().isEmpty());
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link ExecWorker}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class ExecWorkerTest {
+
+    /**
+     * Echoes every line like cat, exits on "exit" and answers "slow" only after a few seconds
+     */
+    static final String ECHO = "sh@@-c@@while read line; do case \"$line\" in exit) exit 1;; slow) sleep 5;; esac; "
+            + "echo \"$line\"; done";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private ExecWorker worker;
+
+    @Before
+    public void setUp() {
+        assumeTrue(File.separatorChar == '/');
+        worker = new ExecWorker(ECHO, executor, 1);
+    }
+
+    @After
+    public void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void valuesAreTransformedByOneProcess() throws TransformationException {
+        assertThat(worker.transform("a", 5000), is("a"));
+        assertThat(worker.transform("b\nc", 5000), is("b c"));
+
+        assertThat(worker.isRunning(), is(true));
+        assertThat(worker.getStarts(), is(1L));
+        assertThat(worker.getTransformations(), is(2L));
+        assertThat(worker.getFailures(), is(0L));
+    }
+
+    @Test
+    public void processIsRestartedAfterItExited() throws TransformationException {
+        assertThat(worker.transform("a", 5000), is("a"));
+        try {
+            worker.transform("exit", 5000);
+            fail("The process exited without answering");
+        } catch (TransformationException e) {
+            // expected
+        }
+        assertThat(worker.isRunning(), is(false));
+
+        assertThat(worker.transform("b", 5000), is("b"));
+        assertThat(worker.getStarts(), is(2L));
+        assertThat(worker.getFailures(), is(1L));
+    }
+
+    @Test
+    public void processIsDestroyedOnTimeoutAndRestartedWithTheNextValue() throws TransformationException {
+        assertThat(worker.transform("a", 5000), is("a"));
+        try {
+            worker.transform("slow", 200);
+            fail("The process answered in time");
+        } catch (TransformationException e) {
+            // expected
+        }
+        assertThat(worker.isRunning(), is(false));
+
+        // the answer to the timed out value must not be taken as the answer to the next one
+        assertThat(worker.transform("b", 5000), is("b"));
+        assertThat(worker.getStarts(), is(2L));
+        assertThat(worker.getFailures(), is(1L));
+    }
+
+    @Test
+    public void valuesAreRejectedWhenTooManyAreWaiting() throws Exception {
+        assertThat(worker.transform("a", 5000), is("a"));
+        Future<String> slow = executor.submit(() -> worker.transform("slow", 1000));
+        // wait for the slow value to be written, then queue one more value behind it
+        Thread.sleep(200);
+        Future<String> waiting = executor.submit(() -> worker.transform("b", 5000));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (worker.getWaiting() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(worker.getWaiting(), is(1));
+
+        try {
+            worker.transform("c", 5000);
+            fail("The value was not rejected");
+        } catch (TransformationException e) {
+            // expected
+        }
+        assertThat(worker.getRejected(), is(1L));
+
+        // the waiting value is transformed once the slow one timed out
+        assertThat(waiting.get(10, TimeUnit.SECONDS), is("b"));
+        try {
+            slow.get(10, TimeUnit.SECONDS);
+            fail("The process answered in time");
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof TransformationException);
+        }
+    }
+
+    @Test
+    public void stopDestroysTheProcess() throws TransformationException {
+        assertThat(worker.transform("a", 5000), is("a"));
+
+        worker.stop();
+
+        assertThat(worker.isRunning(), is(false));
+    }
+}
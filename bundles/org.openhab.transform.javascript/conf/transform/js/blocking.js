@@ -0,0 +1,4 @@
+(function(i) {
+    Java.type('org.openhab.transform.javascript.internal.JavaScriptEngineManagerTest').block();
+    return i;
+})(input)
@@ -0,0 +1,3 @@
+(function(i) {
+    throw 'failed ' + i;
+})(input)
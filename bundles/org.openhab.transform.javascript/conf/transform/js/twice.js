@@ -0,0 +1,3 @@
+(function(i) {
+    return i + i;
+})(input)
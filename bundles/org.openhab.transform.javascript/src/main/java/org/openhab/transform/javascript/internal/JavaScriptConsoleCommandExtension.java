@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.ScriptPool;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the scripts of the JS transformation
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class JavaScriptConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    private final JavaScriptEngineManager manager;
+
+    @Activate
+    public JavaScriptConsoleCommandExtension(@Reference JavaScriptEngineManager manager) {
+        super("js", "Inspect the JS transformation.");
+        this.manager = manager;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        List<ScriptPool> scripts = manager.getScripts();
+        if (scripts.isEmpty()) {
+            console.println("No JavaScript transformations have been executed.");
+            return;
+        }
+        scripts.sort(Comparator.comparing(ScriptPool::getFilename));
+        for (ScriptPool script : scripts) {
+            long invocations = script.getInvocations();
+            console.println(String.format("%s: %d invocations, %d us total, %d us average, %d engines",
+                    script.getFilename(), invocations, TimeUnit.NANOSECONDS.toMicros(script.getTotalNanos()),
+                    invocations == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(script.getTotalNanos() / invocations),
+                    script.getEngines()));
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_STATS, "show invocation counts and execution times of scripts"));
+    }
+}
@@ -13,13 +13,20 @@
 package org.openhab.transform.javascript.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
@@ -27,6 +34,7 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
@@ -35,6 +43,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Simple cache for compiled JavaScript files.
  *
+ * Each script is compiled on up to {@link #MAX_ENGINES_PER_SCRIPT} engines, so concurrent transformations with the
+ * same script do not contend on a single engine. Cache hits do not lock.
+ *
  * @author Thomas Kordelle - pre compiled scripts
  *
  */
@@ -42,41 +53,170 @@ import org.slf4j.LoggerFactory;
 @Component(service = JavaScriptEngineManager.class)
 public class JavaScriptEngineManager {
 
+    /**
+     * Maximum number of engines evaluating the same script concurrently
+     */
+    static final int MAX_ENGINES_PER_SCRIPT = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Default time to wait for an engine when all engines of a script are busy
+     */
+    static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 10000;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, ScriptPool> compiledScriptMap = new ConcurrentHashMap<>();
+    private volatile long borrowTimeoutMillis = DEFAULT_BORROW_TIMEOUT_MILLIS;
+
+    /**
+     * Pool of engines, each having its own compiled copy of the script
+     */
+    class ScriptPool {
+        private final String filename;
+        private final String source;
+        private final LinkedBlockingDeque<CompiledScript> idle = new LinkedBlockingDeque<>();
+        private final AtomicInteger compiled = new AtomicInteger();
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        private ScriptPool(String filename, String source, CompiledScript first) {
+            this.filename = filename;
+            this.source = source;
+            this.compiled.set(1);
+            idle.add(first);
+        }
+
+        /**
+         * Evaluate the script with the input variable set
+         *
+         * @param input value of the 'input' variable
+         * @return result of the script
+         * @throws TransformationException if compiling another copy of the script failed, no engine became
+         *             available in time or the thread was interrupted
+         * @throws ScriptException if the script failed
+         */
+        @Nullable
+        Object eval(String input) throws TransformationException, ScriptException {
+            CompiledScript cScript = borrow();
+            long start = System.nanoTime();
+            try {
+                final Bindings bindings = cScript.getEngine().createBindings();
+                bindings.put("input", input);
+                return cScript.eval(bindings);
+            } finally {
+                invocations.incrementAndGet();
+                totalNanos.addAndGet(System.nanoTime() - start);
+                idle.addFirst(cScript);
+            }
+        }
+
+        private CompiledScript borrow() throws TransformationException {
+            CompiledScript cScript = idle.pollFirst();
+            if (cScript != null) {
+                return cScript;
+            }
+            if (compiled.incrementAndGet() <= MAX_ENGINES_PER_SCRIPT) {
+                try {
+                    logger.debug("Compiling JavaScript {} on another engine.", filename);
+                    return compile(filename, source);
+                } catch (TransformationException e) {
+                    compiled.decrementAndGet();
+                    throw e;
+                }
+            }
+            compiled.decrementAndGet();
+            try {
+                // a script which hangs must not block all later transformations with the script forever
+                cScript = idle.pollFirst(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (cScript == null) {
+                    throw new TransformationException("Timed out after " + borrowTimeoutMillis
+                            + " ms waiting for a JavaScript engine to execute " + filename);
+                }
+                return cScript;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransformationException("Interrupted while waiting for JavaScript engine", e);
+            }
+        }
+
+        String getFilename() {
+            return filename;
+        }
+
+        int getEngines() {
+            return compiled.get();
+        }
+
+        long getInvocations() {
+            return invocations.get();
+        }
+
+        /**
+         * @return total execution time of the script
+         */
+        long getTotalNanos() {
+            return totalNanos.get();
+        }
+    }
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
+     * Set the time to wait for an engine when all engines of a script are busy
+     *
+     * @param borrowTimeoutMillis timeout in milliseconds
+     */
+    void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    /**
+     * Get a pre compiled script from cache. If it is not in the cache, then load it from
      * storage and put a pre compiled version into the cache.
      *
      * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
+     * @return the pool of pre compiled copies of the script
      * @throws TransformationException if compile of JavaScript failed
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
+    protected ScriptPool getScript(final String filename) throws TransformationException {
+        ScriptPool pool = compiledScriptMap.get(filename);
+        if (pool != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return pool;
+        }
         synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
+            pool = compiledScriptMap.get(filename);
+            if (pool != null) {
+                return pool;
+            }
+            final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+            logger.debug("Loading script {} from storage ", path);
+            try {
+                final String source = new String(Files.readAllBytes(Paths.get(path)), Charset.defaultCharset());
+                pool = new ScriptPool(filename, source, compile(filename, source));
+                logger.debug("Putting compiled JavaScript {} to cache.", filename);
+                compiledScriptMap.put(filename, pool);
+                return pool;
+            } catch (IOException e) {
+                throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
             }
         }
     }
 
+    private CompiledScript compile(String filename, String source) throws TransformationException {
+        try {
+            final ScriptEngine engine = manager.getEngineByName("javascript");
+            return ((Compilable) engine).compile(source);
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the scripts in the cache
+     */
+    protected List<ScriptPool> getScripts() {
+        return new ArrayList<>(compiledScriptMap.values());
+    }
+
     /**
      * remove a pre compiled script from cache.
      *
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.ScriptException;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.ScriptPool;
+
+/**
+ * Tests cases for {@link JavaScriptEngineManager}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class JavaScriptEngineManagerTest {
+
+    private static final String TWICE = "js/twice.js";
+    private static final String BLOCKING = "js/blocking.js";
+
+    private static volatile CountDownLatch release = new CountDownLatch(0);
+    private static final Semaphore ENTERED = new Semaphore(0);
+
+    private final JavaScriptEngineManager manager = new JavaScriptEngineManager();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /**
+     * Called by blocking.js, blocks the script until the test releases it
+     */
+    public static void block() throws InterruptedException {
+        ENTERED.release();
+        release.await();
+    }
+
+    @Before
+    public void setUp() {
+        release = new CountDownLatch(1);
+        ENTERED.drainPermits();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void engineIsReturnedToThePoolAfterEvaluation() throws Exception {
+        ScriptPool pool = manager.getScript(TWICE);
+
+        assertThat(pool.eval("a"), is("aa"));
+        assertThat(pool.eval("b"), is("bb"));
+        assertThat(pool.getEngines(), is(1));
+    }
+
+    @Test
+    public void engineIsReturnedToThePoolWhenTheScriptFails() throws Exception {
+        manager.setBorrowTimeoutMillis(100);
+        ScriptPool pool = manager.getScript("js/throwing.js");
+
+        for (int i = 0; i < JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT + 1; i++) {
+            try {
+                pool.eval("a");
+                fail("The script should have failed");
+            } catch (ScriptException e) {
+                assertThat(e.getMessage(), containsString("failed a"));
+            }
+        }
+        assertThat(pool.getEngines(), is(1));
+        assertThat(pool.getInvocations(), is((long) JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT + 1));
+    }
+
+    @Test
+    public void busyScriptIsCompiledOnAnotherEngine() throws Exception {
+        ScriptPool pool = manager.getScript(BLOCKING);
+
+        Future<Object> first = executor.submit(() -> pool.eval("a"));
+        assertTrue(ENTERED.tryAcquire(5, TimeUnit.SECONDS));
+        Future<Object> second = executor.submit(() -> pool.eval("b"));
+        assertTrue(ENTERED.tryAcquire(5, TimeUnit.SECONDS));
+
+        assertThat(pool.getEngines(), is(2));
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS), is("a"));
+        assertThat(second.get(5, TimeUnit.SECONDS), is("b"));
+    }
+
+    @Test
+    public void numberOfEnginesIsLimited() throws Exception {
+        ScriptPool pool = manager.getScript(BLOCKING);
+        int calls = JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT + 2;
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            String input = String.valueOf(i);
+            results.add(executor.submit(() -> pool.eval(input)));
+        }
+        assertTrue(ENTERED.tryAcquire(JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT, 5, TimeUnit.SECONDS));
+        // the remaining calls wait for an engine
+        assertFalse(ENTERED.tryAcquire(200, TimeUnit.MILLISECONDS));
+        assertThat(pool.getEngines(), is(JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT));
+
+        release.countDown();
+        for (int i = 0; i < calls; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS), is(String.valueOf(i)));
+        }
+        assertThat(pool.getEngines(), is(JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT));
+    }
+
+    @Test
+    public void waitingForAnEngineTimesOut() throws Exception {
+        manager.setBorrowTimeoutMillis(100);
+        ScriptPool pool = manager.getScript(BLOCKING);
+        for (int i = 0; i < JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT; i++) {
+            executor.submit(() -> pool.eval("a"));
+        }
+        assertTrue(ENTERED.tryAcquire(JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT, 5, TimeUnit.SECONDS));
+
+        try {
+            pool.eval("b");
+            fail("The evaluation should have timed out");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("Timed out"));
+        }
+
+        // the engines can be used again after the hanging evaluations finished
+        release.countDown();
+        manager.setBorrowTimeoutMillis(5000);
+        assertThat(pool.eval("c"), is("c"));
+    }
+
+    @Test
+    public void scriptIsCachedUntilRemoved() throws Exception {
+        ScriptPool pool = manager.getScript(TWICE);
+        assertThat(manager.getScript(TWICE), is(sameInstance(pool)));
+        assertThat(manager.getScripts().size(), is(1));
+
+        manager.removeFromCache(TWICE);
+
+        assertTrue(manager.getScripts().isEmpty());
+        ScriptPool reloaded = manager.getScript(TWICE);
+        assertThat(reloaded, is(not(sameInstance(pool))));
+        assertThat(reloaded.eval("a"), is("aa"));
+    }
+
+    @Test
+    public void invocationsAndExecutionTimeAreCounted() throws Exception {
+        ScriptPool pool = manager.getScript(TWICE);
+        assertThat(pool.getInvocations(), is(0L));
+        assertThat(pool.getTotalNanos(), is(0L));
+
+        pool.eval("a");
+        pool.eval("b");
+        pool.eval("c");
+
+        assertThat(pool.getInvocations(), is(3L));
+        assertTrue(pool.getTotalNanos() > 0);
+        assertThat(pool.getFilename(), is(TWICE));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void missingScriptFails() throws Exception {
+        manager.getScript("js/missing.js");
+    }
+
+    @Test
+    public void brokenScriptIsNotCached() throws Exception {
+        try {
+            manager.getScript("js/broken.js");
+            fail("The script should not compile");
+        } catch (TransformationException e) {
+            assertTrue(manager.getScripts().isEmpty());
+        }
+    }
+}
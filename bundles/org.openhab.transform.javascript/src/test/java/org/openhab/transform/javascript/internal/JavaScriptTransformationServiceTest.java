@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.ScriptPool;
+
+/**
+ * Tests cases for {@link JavaScriptTransformationService}.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+public class JavaScriptTransformationServiceTest {
+
+    private final JavaScriptEngineManager manager = new JavaScriptEngineManager();
+    private final JavaScriptTransformationService processor = new JavaScriptTransformationService();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @Before
+    public void setUp() {
+        processor.setJavaScriptEngineManager(manager);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testTransform() throws TransformationException {
+        assertThat(processor.transform("js/twice.js", "ab"), is("abab"));
+    }
+
+    @Test
+    public void testConcurrentTransformsWithOneScript() throws Exception {
+        int calls = 200;
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            String input = String.valueOf(i);
+            results.add(executor.submit(() -> processor.transform("js/twice.js", input)));
+        }
+
+        for (int i = 0; i < calls; i++) {
+            assertThat(results.get(i).get(10, TimeUnit.SECONDS), is(String.valueOf(i) + i));
+        }
+        ScriptPool pool = manager.getScripts().get(0);
+        assertThat(manager.getScripts().size(), is(1));
+        assertThat(pool.getInvocations(), is((long) calls));
+        assertTrue(pool.getEngines() <= JavaScriptEngineManager.MAX_ENGINES_PER_SCRIPT);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testFailingScript() throws TransformationException {
+        processor.transform("js/throwing.js", "a");
+    }
+}
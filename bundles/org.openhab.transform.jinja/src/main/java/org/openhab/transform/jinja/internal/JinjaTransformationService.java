@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,6 +32,13 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.TreeParser;
 
 /**
  * <p>
@@ -45,8 +53,76 @@ public class JinjaTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
+    /**
+     * Maximum number of parsed templates kept
+     */
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
+    private static final String VALUE_JSON = "value_json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private Jinjava jinjava = new Jinjava();
 
+    /**
+     * Parsed templates by the template string. Guarded by the lock of the map.
+     */
+    private final Map<String, ParsedTemplate> templateCache = new LinkedHashMap<String, ParsedTemplate>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, ParsedTemplate> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    /**
+     * Maximum number of parsed JSON values kept, and how long they are kept. Channels applying different templates to
+     * the same message transform it in quick succession, so a few recent values suffice.
+     */
+    private static final int MAX_CACHED_VALUES = 8;
+    private static final long VALUE_CACHE_MILLIS = 5000;
+
+    /**
+     * Parsed JSON values by the transformed string. Guarded by the lock of the map.
+     */
+    private final Map<String, ParsedValue> valueCache = new LinkedHashMap<String, ParsedValue>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, ParsedValue> eldest) {
+            return size() > MAX_CACHED_VALUES;
+        }
+    };
+
+    private static class ParsedValue {
+        /**
+         * The value_json binding, null if the value is no valid JSON
+         */
+        private final @Nullable Object valueJson;
+        private final long parsedMillis;
+
+        private ParsedValue(@Nullable Object valueJson, long parsedMillis) {
+            this.valueJson = valueJson;
+            this.parsedMillis = parsedMillis;
+        }
+    }
+
+    private static class ParsedTemplate {
+        /**
+         * Root of the parsed template, null when parsing reported errors. Those templates are rendered from the
+         * string, so the errors are reported on every transformation.
+         */
+        private final @Nullable Node root;
+        private final boolean usesValueJson;
+
+        private ParsedTemplate(@Nullable Node root, boolean usesValueJson) {
+            this.root = root;
+            this.usesValueJson = usesValueJson;
+        }
+    }
+
     /**
      * Transforms the input <code>value</code> by Jinja template.
      *
@@ -58,23 +134,93 @@ public class JinjaTransformationService implements TransformationService {
     public @Nullable String transform(String template, String value) throws TransformationException {
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
+        ParsedTemplate parsedTemplate = getParsedTemplate(template);
+
         Map<String, @Nullable Object> bindings = new HashMap<>();
         bindings.put("value", value);
 
-        try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        if (parsedTemplate.usesValueJson) {
+            bindings.put(VALUE_JSON, getValueJson(value));
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        Node root = parsedTemplate.root;
+        String transformationResult = root != null ? render(template, root, bindings)
+                : jinjava.render(template, bindings);
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
+    private ParsedTemplate getParsedTemplate(String template) {
+        synchronized (templateCache) {
+            ParsedTemplate parsedTemplate = templateCache.get(template);
+            if (parsedTemplate != null) {
+                return parsedTemplate;
+            }
+        }
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, jinjava.getGlobalContext(),
+                jinjava.getGlobalConfig());
+        Node root = new TreeParser(interpreter, template).buildTree();
+        ParsedTemplate parsedTemplate = new ParsedTemplate(interpreter.getErrors().isEmpty() ? root : null,
+                template.contains(VALUE_JSON));
+        synchronized (templateCache) {
+            templateCache.put(template, parsedTemplate);
+        }
+        return parsedTemplate;
+    }
+
+    /**
+     * Parse the value as JSON, re-using the result parsed recently from the same value
+     *
+     * The parsed values are only read by the templates, never modified, so they can be shared by concurrent
+     * transformations.
+     */
+    private @Nullable Object getValueJson(String value) {
+        long now = System.currentTimeMillis();
+        synchronized (valueCache) {
+            ParsedValue parsed = valueCache.get(value);
+            if (parsed != null && now - parsed.parsedMillis <= VALUE_CACHE_MILLIS) {
+                return parsed.valueJson;
+            }
+        }
+        // parse outside of the lock, concurrent transformations of different values should not wait for each other
+        Object valueJson = null;
+        try {
+            valueJson = toObject(OBJECT_MAPPER.readTree(value));
+        } catch (IOException e) {
+            // ok, then value_json is null...
+        }
+        synchronized (valueCache) {
+            valueCache.put(value, new ParsedValue(valueJson, now));
+        }
+        return valueJson;
+    }
+
+    /**
+     * Render a parsed template, the same way {@link Jinjava#render(String, Map)} renders a template string
+     */
+    private String render(String template, Node root, Map<String, @Nullable Object> bindings) {
+        Context context = new Context(jinjava.getGlobalContext(), bindings);
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            String result = interpreter.render(root);
+            List<TemplateError> fatalErrors = new ArrayList<>();
+            for (TemplateError error : interpreter.getErrors()) {
+                if (error.getSeverity() == ErrorType.FATAL) {
+                    fatalErrors.add(error);
+                }
+            }
+            if (!fatalErrors.isEmpty()) {
+                throw new FatalTemplateErrorsException(template, fatalErrors);
+            }
+            return result;
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
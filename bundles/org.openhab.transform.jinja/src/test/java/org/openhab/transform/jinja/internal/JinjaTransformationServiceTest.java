@@ -62,4 +62,26 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testCachedTemplate() throws TransformationException {
+        String template = "{{ value_json.state | upper }}";
+        Assert.assertEquals("ON", processor.transform(template, "{\"state\":\"on\"}"));
+        Assert.assertEquals("OFF", processor.transform(template, "{\"state\":\"off\"}"));
+    }
+
+    @Test
+    public void testCachedTemplateWithoutJson() throws TransformationException {
+        String template = "{% if value == 'on' %}ON{% else %}OFF{% endif %}";
+        Assert.assertEquals("ON", processor.transform(template, "on"));
+        Assert.assertEquals("OFF", processor.transform(template, "{\"state\":\"on\"}"));
+    }
+
+    @Test
+    public void testSeveralTemplatesOnOneValue() throws TransformationException {
+        String json = "{\"AM2301\":{\"Temperature\":4.7,\"Humidity\":99.9},\"TempUnit\":\"C\"}";
+        Assert.assertEquals("4.7", processor.transform("{{value_json['AM2301'].Temperature}}", json));
+        Assert.assertEquals("99.9", processor.transform("{{value_json['AM2301'].Humidity}}", json));
+        Assert.assertEquals("C", processor.transform("{{value_json.TempUnit}}", json));
+        Assert.assertEquals("", processor.transform("{{value_json.TempUnit}}", "no json"));
+    }
 }
@@ -12,7 +12,9 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +26,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -41,8 +44,51 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled JsonPath expressions kept
+     */
+    private static final int MAX_CACHED_PATHS = 256;
+
+    /**
+     * Maximum number of parsed JSON documents kept, and how long they are kept. Channels applying different
+     * expressions to the same message transform it in quick succession, so a few recent documents suffice.
+     */
+    private static final int MAX_CACHED_DOCUMENTS = 8;
+    private static final long DOCUMENT_CACHE_MILLIS = 5000;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Configuration configuration = Configuration.defaultConfiguration();
+
+    private final Map<String, JsonPath> pathCache = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    private final Map<String, ParsedDocument> documentCache = new LinkedHashMap<String, ParsedDocument>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, ParsedDocument> eldest) {
+            return size() > MAX_CACHED_DOCUMENTS;
+        }
+    };
+
+    private static class ParsedDocument {
+        private final Object document;
+        private final long parsedMillis;
+
+        private ParsedDocument(Object document, long parsedMillis) {
+            this.document = document;
+            this.parsedMillis = parsedMillis;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +106,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = getPath(jsonPathExpression).read(getDocument(source), configuration);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +122,39 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (pathCache) {
+            JsonPath path = pathCache.get(jsonPathExpression);
+            if (path == null) {
+                path = JsonPath.compile(jsonPathExpression);
+                pathCache.put(jsonPathExpression, path);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Parse the JSON document, re-using the document parsed recently from the same source
+     *
+     * The parsed documents are only read by JsonPath, never modified, so they can be shared by concurrent
+     * transformations.
+     */
+    private Object getDocument(String source) {
+        long now = System.currentTimeMillis();
+        synchronized (documentCache) {
+            ParsedDocument parsed = documentCache.get(source);
+            if (parsed != null && now - parsed.parsedMillis <= DOCUMENT_CACHE_MILLIS) {
+                return parsed.document;
+            }
+        }
+        // parse outside of the lock, concurrent transformations of different documents should not wait for each other
+        Object document = configuration.jsonProvider().parse(source);
+        synchronized (documentCache) {
+            documentCache.put(source, new ParsedDocument(document, now));
+        }
+        return document;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -129,4 +129,26 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testSeveralPathsOnSamePayload() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("bob", processor.transform("$[0].name", jsonArray));
+            assertEquals("alice", processor.transform("$[1].name", jsonArray));
+            assertEquals("[1, 2]", processor.transform("$.*.id", jsonArray));
+        }
+    }
+
+    @Test
+    public void testChangedPayloadIsParsedAgain() throws TransformationException {
+        assertEquals("1", processor.transform("$.value", "{\"value\":1}"));
+        assertEquals("2", processor.transform("$.value", "{\"value\":2}"));
+        assertEquals("1", processor.transform("$.value", "{\"value\":1}"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidPathThrowsExceptionAfterValidPath() throws TransformationException {
+        processor.transform("$[0].name", jsonArray);
+        processor.transform("$$", jsonArray);
+    }
 }
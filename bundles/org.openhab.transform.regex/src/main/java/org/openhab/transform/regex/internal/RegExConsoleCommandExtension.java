@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.transform.regex.internal.RegExTransformationService.CacheStatistics;
+import org.openhab.transform.regex.internal.RegExTransformationService.ExpressionStatistics;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the expression cache of the REGEX transformation
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class RegExConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    private final RegExTransformationService service;
+
+    @Activate
+    public RegExConsoleCommandExtension(@Reference RegExTransformationService service) {
+        super("regex", "Inspect the REGEX transformation.");
+        this.service = service;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        CacheStatistics statistics = service.getStatistics();
+        long lookups = statistics.getHits() + statistics.getMisses();
+        console.println(String.format("cache: %d hits, %d misses (hit rate %s), %d expressions cached",
+                statistics.getHits(), statistics.getMisses(),
+                lookups == 0 ? "-" : String.format("%.1f %%", 100.0 * statistics.getHits() / lookups),
+                statistics.getExpressions().size()));
+        for (ExpressionStatistics expression : statistics.getExpressions()) {
+            long transformations = expression.getTransformations();
+            console.println(String.format("  %d transformations, %d us total, %d us average: %s", transformations,
+                    TimeUnit.NANOSECONDS.toMicros(expression.getTotalNanos()),
+                    transformations == 0 ? 0
+                            : TimeUnit.NANOSECONDS.toMicros(expression.getTotalNanos() / transformations),
+                    expression.getExpression()));
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_STATS, "show expression cache statistics"));
+    }
+}
@@ -12,6 +12,11 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,16 +35,121 @@ import org.slf4j.LoggerFactory;
  * <p>
  * <b>Note:</b> the given Regular Expression must contain exactly one group!
  *
+ * <p>
+ * Compiled expressions are kept in a bounded cache, see {@link #getStatistics()} for its hit rate and the cost of the
+ * cached expressions.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=REGEX" })
+@Component(service = { TransformationService.class,
+        RegExTransformationService.class }, immediate = true, property = { "smarthome.transform=REGEX" })
 public class RegExTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /**
+     * Maximum number of compiled expressions kept
+     */
+    private static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    /**
+     * Compiled expressions by the transformation function. Guarded by the lock of the map.
+     */
+    private final Map<String, CompiledExpression> cache = new LinkedHashMap<String, CompiledExpression>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, CompiledExpression> eldest) {
+            return size() > MAX_CACHED_EXPRESSIONS;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Transformation function compiled either to a substitution or to a pattern extracting the first group
+     */
+    private static class CompiledExpression {
+        private final String expression;
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+        private final AtomicLong transformations = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        private CompiledExpression(String expression, Pattern pattern, @Nullable String substitution,
+                boolean global) {
+            this.expression = expression;
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.global = global;
+        }
+    }
+
+    /**
+     * Statistics of a cached expression
+     */
+    public static class ExpressionStatistics {
+        private final String expression;
+        private final long transformations;
+        private final long totalNanos;
+
+        private ExpressionStatistics(String expression, long transformations, long totalNanos) {
+            this.expression = expression;
+            this.transformations = transformations;
+            this.totalNanos = totalNanos;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public long getTransformations() {
+            return transformations;
+        }
+
+        /**
+         * @return total time spent matching with the expression
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+    }
+
+    /**
+     * Statistics of the expression cache
+     */
+    public static class CacheStatistics {
+        private final long hits;
+        private final long misses;
+        private final List<ExpressionStatistics> expressions;
+
+        private CacheStatistics(long hits, long misses, List<ExpressionStatistics> expressions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.expressions = expressions;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return statistics of the expressions currently cached, least recently used first
+         */
+        public List<ExpressionStatistics> getExpressions() {
+            return expressions;
+        }
+    }
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -48,29 +158,31 @@ public class RegExTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, regExpression);
 
+        CompiledExpression compiled = getCompiledExpression(regExpression);
+        long start = System.nanoTime();
+        try {
+            return transform(compiled, source);
+        } finally {
+            compiled.transformations.incrementAndGet();
+            compiled.totalNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private @Nullable String transform(CompiledExpression compiled, String source) {
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        String substitution = compiled.substitution;
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
-            } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
-            }
+            Matcher matcher = compiled.pattern.matcher(source.trim());
+            return compiled.global ? matcher.replaceAll(substitution) : matcher.replaceFirst(substitution);
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = compiled.pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
-                    regExpression, source);
+                    compiled.expression, source);
             return null;
         }
         matcher.reset();
@@ -79,7 +191,7 @@ public class RegExTransformationService implements TransformationService {
             if (matcher.groupCount() == 0) {
                 logger.info(
                         "the given regular expression '^{}$' doesn't contain a group. No content will be extracted and returned!",
-                        regExpression);
+                        compiled.expression);
                 continue;
             }
 
@@ -88,11 +200,51 @@ public class RegExTransformationService implements TransformationService {
             if (matcher.groupCount() > 1) {
                 logger.debug(
                         "the given regular expression '^{}$' contains more than one group. Only the first group will be returned!",
-                        regExpression);
+                        compiled.expression);
             }
         }
 
         return result;
     }
 
+    private CompiledExpression getCompiledExpression(String regExpression) {
+        synchronized (cache) {
+            CompiledExpression compiled = cache.get(regExpression);
+            if (compiled != null) {
+                cacheHits.incrementAndGet();
+                return compiled;
+            }
+        }
+        cacheMisses.incrementAndGet();
+        // compile outside of the lock, invalid expressions throw and are not cached
+        CompiledExpression compiled = compile(regExpression);
+        synchronized (cache) {
+            cache.put(regExpression, compiled);
+        }
+        return compiled;
+    }
+
+    private static CompiledExpression compile(String regExpression) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            String regex = substMatcher.group(1);
+            String substitution = substMatcher.group(2);
+            String options = substMatcher.group(3);
+            return new CompiledExpression(regExpression, Pattern.compile(regex), substitution, options.equals("g"));
+        }
+        return new CompiledExpression(regExpression, Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null,
+                false);
+    }
+
+    /**
+     * @return statistics of the expression cache
+     */
+    public CacheStatistics getStatistics() {
+        List<ExpressionStatistics> expressions = new ArrayList<>();
+        synchronized (cache) {
+            cache.values().forEach(compiled -> expressions.add(new ExpressionStatistics(compiled.expression,
+                    compiled.transformations.get(), compiled.totalNanos.get())));
+        }
+        return new CacheStatistics(cacheHits.get(), cacheMisses.get(), expressions);
+    }
 }
@@ -79,4 +79,18 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testCachedExpressionIsReused() throws TransformationException {
+        assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+        assertEquals("Reset(0)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:Reset,ARG:0"));
+        assertEquals("8", processor.transform("temp=(.*?)'C", "temp=8'C"));
+        assertEquals("9", processor.transform("temp=(.*?)'C", "temp=9'C"));
+
+        RegExTransformationService.CacheStatistics statistics = processor.getStatistics();
+        assertEquals(2, statistics.getMisses());
+        assertEquals(2, statistics.getHits());
+        assertEquals(2, statistics.getExpressions().size());
+        assertEquals(2, statistics.getExpressions().get(0).getTransformations());
+    }
 }
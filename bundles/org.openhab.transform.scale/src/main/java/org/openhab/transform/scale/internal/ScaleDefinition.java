@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Compiled scale file.
+ *
+ * The limits of all ranges split the number line into elementary intervals: the limits themselves and the open
+ * intervals between them. Each elementary interval is either fully contained in a range or not at all, so the label
+ * of the first range (in file order) containing it is computed once. A value is looked up by binary search over the
+ * sorted limits.
+ *
+ * The format is split into literal parts and the <code>%value%</code> and <code>%label%</code> placeholders.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+class ScaleDefinition {
+
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+
+    /** Distinct limits of all ranges, sorted */
+    private final BigDecimal[] limits;
+    /**
+     * Labels of the elementary intervals, null if no range contains it. Index 2i+1 is limit i, index 2i is the open
+     * interval below limit i and the last index the open interval above the last limit.
+     */
+    private final String[] labels;
+    private final String nonNumericLabel;
+    /** Literal parts of the format, null for the placeholders */
+    private final String[] formatParts;
+    /** Whether a placeholder in the format is <code>%value%</code> (or else <code>%label%</code>) */
+    private final boolean[] formatValues;
+
+    /**
+     * @param ranges ranges in file order
+     * @param rangeLabels labels of the ranges
+     * @param nonNumericLabel label of non numeric values, null if not defined
+     * @param format presentation format
+     */
+    ScaleDefinition(List<Range> ranges, List<String> rangeLabels, String nonNumericLabel, String format) {
+        TreeSet<BigDecimal> sortedLimits = new TreeSet<>();
+        for (Range range : ranges) {
+            if (range.min != null) {
+                sortedLimits.add(range.min);
+            }
+            if (range.max != null) {
+                sortedLimits.add(range.max);
+            }
+        }
+        limits = sortedLimits.toArray(new BigDecimal[sortedLimits.size()]);
+
+        labels = new String[2 * limits.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            BigDecimal representative = representative(i);
+            for (int r = 0; r < ranges.size(); r++) {
+                if (ranges.get(r).contains(representative)) {
+                    labels[i] = rangeLabels.get(r);
+                    break;
+                }
+            }
+        }
+
+        this.nonNumericLabel = nonNumericLabel;
+        List<String> parts = new ArrayList<>();
+        List<Boolean> values = new ArrayList<>();
+        tokenize(format, parts, values);
+        formatParts = parts.toArray(new String[parts.size()]);
+        formatValues = new boolean[values.size()];
+        for (int i = 0; i < formatValues.length; i++) {
+            formatValues[i] = values.get(i);
+        }
+    }
+
+    /**
+     * A value within the elementary interval
+     */
+    private BigDecimal representative(int interval) {
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        int limit = interval / 2;
+        if (interval % 2 == 1) {
+            return limits[limit];
+        } else if (limit == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        } else if (limit == limits.length) {
+            return limits[limits.length - 1].add(BigDecimal.ONE);
+        } else {
+            return limits[limit - 1].add(limits[limit]).divide(BigDecimal.valueOf(2));
+        }
+    }
+
+    private static void tokenize(String format, List<String> parts, List<Boolean> values) {
+        int start = 0;
+        while (start < format.length()) {
+            int value = format.indexOf(FORMAT_VALUE, start);
+            int label = format.indexOf(FORMAT_LABEL, start);
+            int next = value < 0 ? label : label < 0 ? value : Math.min(value, label);
+            if (next < 0) {
+                parts.add(format.substring(start));
+                values.add(false);
+                break;
+            }
+            if (next > start) {
+                parts.add(format.substring(start, next));
+                values.add(false);
+            }
+            parts.add(null);
+            values.add(next == value);
+            start = next + (next == value ? FORMAT_VALUE.length() : FORMAT_LABEL.length());
+        }
+    }
+
+    /**
+     * @return label of the first range containing the value, null if there is none
+     */
+    String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(limits, value);
+        return labels[index >= 0 ? 2 * index + 1 : 2 * (-index - 1)];
+    }
+
+    /**
+     * @return label of non numeric values, null if not defined
+     */
+    String getNonNumericLabel() {
+        return nonNumericLabel;
+    }
+
+    /**
+     * Format the result of a transformation
+     *
+     * @param source the transformed value
+     * @param label the label of the matching range
+     */
+    String format(String source, String label) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < formatParts.length; i++) {
+            String part = formatParts[i];
+            if (part != null) {
+                result.append(part);
+            } else {
+                result.append(formatValues[i] ? source : label);
+            }
+        }
+        return result.toString();
+    }
+}
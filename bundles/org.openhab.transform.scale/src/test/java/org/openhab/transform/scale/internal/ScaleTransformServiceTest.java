@@ -150,4 +150,15 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("Correcte (992) !", transformedResponse);
     }
 
+    @Test
+    public void testTransformByScaleBounds() throws TransformationException {
+        String existingscale = "scale/limits.scale";
+        Assert.assertEquals("low", processor.transform(existingscale, "9.999"));
+        Assert.assertEquals("middle", processor.transform(existingscale, "10"));
+        Assert.assertEquals("middle", processor.transform(existingscale, "10.00"));
+        Assert.assertEquals("middle", processor.transform(existingscale, "19.5"));
+        Assert.assertEquals("high", processor.transform(existingscale, "20"));
+        Assert.assertEquals("high", processor.transform(existingscale, "299.999"));
+        Assert.assertEquals("extreme", processor.transform(existingscale, "300"));
+    }
 }
@@ -41,4 +41,16 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByCachedXPath() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidXmlAfterValidXml() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", source);
+        processor.transform("//current_conditions/temp_c/@data", "<invalid");
+    }
 }
@@ -15,9 +15,13 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -35,14 +39,33 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * <p>
+ * Stylesheets are compiled to {@link Templates} once and cached until the {@link XsltTransformationWatcher} reports
+ * the file as modified or deleted.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=XSLT" })
+@Component(service = { TransformationService.class,
+        XsltTransformationService.class }, immediate = true, property = { "smarthome.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    public static final String TRANSFORM_FOLDER = ConfigConstants.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /**
+     * Transformer factories are not thread safe, each thread compiling stylesheets gets its own
+     */
+    private final ThreadLocal<TransformerFactory> transformerFactory = ThreadLocal
+            .withInitial(TransformerFactory::newInstance);
+
+    /**
+     * Compiled stylesheets by the path of the file. Templates are thread safe.
+     */
+    private final Map<Path, Templates> templatesCache = new ConcurrentHashMap<>();
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +83,10 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Path path;
 
         try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            path = Paths.get(TRANSFORM_FOLDER, filename).toAbsolutePath().normalize();
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -73,16 +94,13 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException(message, e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, path);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            getTemplates(path).newTransformer().transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
@@ -93,4 +111,50 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    private Templates getTemplates(Path path) throws TransformerConfigurationException {
+        Templates templates = templatesCache.get(path);
+        if (templates != null) {
+            return templates;
+        }
+        try {
+            // compile inside of the map, so a concurrent removeFromCache() of the file waits for the compilation and
+            // removes its result. Invalid stylesheets throw and are not cached
+            return templatesCache.computeIfAbsent(path, key -> {
+                try {
+                    return transformerFactory.get().newTemplates(new StreamSource(key.toFile()));
+                } catch (TransformerConfigurationException e) {
+                    throw new CompilationException(e);
+                }
+            });
+        } catch (CompilationException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Remove the compiled stylesheet of a file from the cache, it is compiled again on the next transformation
+     *
+     * @param path path of the modified or deleted file
+     */
+    public void removeFromCache(Path path) {
+        if (templatesCache.remove(path.toAbsolutePath().normalize()) != null) {
+            logger.debug("Removed stylesheet {} from cache", path);
+        }
+    }
+
+    /**
+     * Carries the checked exception of a failed compilation out of {@link Map#computeIfAbsent}
+     */
+    private static class CompilationException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private CompilationException(TransformerConfigurationException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized TransformerConfigurationException getCause() {
+            return (TransformerConfigurationException) super.getCause();
+        }
+    }
 }
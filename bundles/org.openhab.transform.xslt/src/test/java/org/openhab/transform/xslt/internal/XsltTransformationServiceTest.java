@@ -14,6 +14,8 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.file.Paths;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -41,4 +43,21 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByCachedXSLT() throws TransformationException {
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+    }
+
+    @Test
+    public void testTransformAfterCacheInvalidation() throws TransformationException {
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        processor.removeFromCache(Paths.get(XsltTransformationService.TRANSFORM_FOLDER, "http/google_weather.xsl"));
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testMissingStylesheet() throws TransformationException {
+        processor.transform("http/missing.xsl", source);
+    }
 }